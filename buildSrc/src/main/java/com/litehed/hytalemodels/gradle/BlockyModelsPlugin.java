@@ -0,0 +1,45 @@
+package com.litehed.hytalemodels.gradle;
+
+import org.gradle.api.Plugin;
+import org.gradle.api.Project;
+import org.gradle.api.plugins.JavaPluginExtension;
+import org.gradle.api.tasks.SourceSet;
+import org.gradle.api.tasks.SourceSetContainer;
+import org.gradle.api.tasks.TaskProvider;
+import org.gradle.jvm.toolchain.JavaToolchainService;
+import org.gradle.language.jvm.tasks.ProcessResources;
+
+/**
+ * Compiles every .blockymodel in the main resources into a .blockybin during processResources
+ * The compiler is the mod's own BlockyModelCompiler, run against the compiled main classes,
+ * so models are validated with exactly the rules the loader uses in game
+ */
+public class BlockyModelsPlugin implements Plugin<Project> {
+
+    private static final String COMPILER_CLASS = "com.litehed.hytalemodels.modelstuff.BlockyModelCompiler";
+
+    @Override
+    public void apply(Project project) {
+        project.getPluginManager().withPlugin("java", plugin -> {
+            SourceSet main = project.getExtensions().getByType(SourceSetContainer.class)
+                    .getByName(SourceSet.MAIN_SOURCE_SET_NAME);
+            JavaPluginExtension java = project.getExtensions().getByType(JavaPluginExtension.class);
+            JavaToolchainService toolchains = project.getExtensions().getByType(JavaToolchainService.class);
+
+            TaskProvider<CompileBlockyModels> compile = project.getTasks().register("compileBlockyModels", CompileBlockyModels.class, task -> {
+                task.setGroup("build");
+                task.setDescription("Validates every .blockymodel and compiles it into a .blockybin");
+                task.getResourceDirectories().from(main.getResources().getSourceDirectories());
+                task.getOutputDirectory().set(project.getLayout().getBuildDirectory().dir("generated/blockybin"));
+                // Not the main runtime classpath, that contains the processed resources and would form a cycle
+                task.classpath(main.getOutput().getClassesDirs(),
+                        project.getConfigurations().getByName(main.getRuntimeClasspathConfigurationName()));
+                task.getMainClass().set(COMPILER_CLASS);
+                task.getJavaLauncher().set(toolchains.launcherFor(java.getToolchain()));
+            });
+
+            project.getTasks().named(main.getProcessResourcesTaskName(), ProcessResources.class,
+                    task -> task.from(compile));
+        });
+    }
+}
@@ -0,0 +1,51 @@
+package com.litehed.hytalemodels.gradle;
+
+import org.gradle.api.file.ConfigurableFileCollection;
+import org.gradle.api.file.DirectoryProperty;
+import org.gradle.api.file.FileSystemOperations;
+import org.gradle.api.tasks.CacheableTask;
+import org.gradle.api.tasks.IgnoreEmptyDirectories;
+import org.gradle.api.tasks.InputFiles;
+import org.gradle.api.tasks.JavaExec;
+import org.gradle.api.tasks.OutputDirectory;
+import org.gradle.api.tasks.PathSensitive;
+import org.gradle.api.tasks.PathSensitivity;
+
+import javax.inject.Inject;
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Runs the BlockyModel compiler over a set of resource directories
+ * Compiled models keep their path relative to the resource directory they came from
+ */
+@CacheableTask
+public abstract class CompileBlockyModels extends JavaExec {
+
+    @InputFiles
+    @PathSensitive(PathSensitivity.RELATIVE)
+    @IgnoreEmptyDirectories
+    public abstract ConfigurableFileCollection getResourceDirectories();
+
+    @OutputDirectory
+    public abstract DirectoryProperty getOutputDirectory();
+
+    @Inject
+    protected abstract FileSystemOperations getFileSystemOperations();
+
+    @Override
+    public void exec() {
+        File output = getOutputDirectory().get().getAsFile();
+        // Start clean so models deleted from the sources do not leave stale compiled copies behind
+        getFileSystemOperations().delete(spec -> spec.delete(output));
+
+        List<String> arguments = new ArrayList<>();
+        arguments.add(output.getAbsolutePath());
+        for (File directory : getResourceDirectories().getFiles()) {
+            arguments.add(directory.getAbsolutePath());
+        }
+        setArgs(arguments);
+        super.exec();
+    }
+}
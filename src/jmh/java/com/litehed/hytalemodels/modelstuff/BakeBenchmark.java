@@ -0,0 +1,63 @@
+package com.litehed.hytalemodels.modelstuff;
+
+import com.mojang.math.Transformation;
+import net.minecraft.client.renderer.texture.TextureAtlasSprite;
+import net.minecraft.client.resources.model.QuadCollection;
+import org.joml.Vector3f;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Building the model space mesh and baking it into quads against a stub sprite, no client or GPU is needed
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BakeBenchmark extends SyntheticModelState {
+
+    private BlockyNodeStore store;
+    private BlockyMesh mesh;
+    private TextureAtlasSprite sprite;
+    private Transformation transform;
+
+    @Setup
+    public void prepare() throws Exception {
+        store = parseModel();
+        mesh = BlockyMesh.build(store);
+        sprite = StubSprite.create(64, 64);
+        transform = new Transformation(new Vector3f(0.5f, 0.5f, 0.5f), null, null, null);
+    }
+
+    @Benchmark
+    public BlockyMesh buildMesh() {
+        return BlockyMesh.build(store);
+    }
+
+    @Benchmark
+    public BlockyMesh optimizeMesh() {
+        BlockyMesh built = BlockyMesh.build(store);
+        BlockyMeshOptimizer.snapAxisAligned(built);
+        return BlockyMeshOptimizer.mergeCoplanarQuads(BlockyMeshOptimizer.removeHiddenFaces(built, store));
+    }
+
+    @Benchmark
+    public QuadCollection bakeQuads() {
+        QuadCollection.Builder builder = new QuadCollection.Builder();
+        for (int quad = 0; quad < mesh.quadCount; quad++) {
+            QuadBuilder.addQuad(builder, mesh.positions, mesh.uvs, quad,
+                    mesh.normals[quad * 3], mesh.normals[quad * 3 + 1], mesh.normals[quad * 3 + 2],
+                    sprite, transform);
+        }
+        return builder.build();
+    }
+}
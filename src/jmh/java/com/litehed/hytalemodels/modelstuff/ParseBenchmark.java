@@ -0,0 +1,37 @@
+package com.litehed.hytalemodels.modelstuff;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayInputStream;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Tokenizing and parsing a .blockymodel, with the tree parser and the streaming parser
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ParseBenchmark extends SyntheticModelState {
+
+    @Benchmark
+    public BlockyNodeStore treeParser() throws Exception {
+        try (BlockyModelTokenizer tokenizer = new BlockyModelTokenizer(new ByteArrayInputStream(model))) {
+            return BlockyModelParser.parseNodes(tokenizer.getRoot());
+        }
+    }
+
+    @Benchmark
+    public BlockyNodeStore streamingParser() throws Exception {
+        try (BlockyModelTokenizer tokenizer = new BlockyModelTokenizer(new ByteArrayInputStream(model))) {
+            return BlockyModelStreamParser.parseNodes(tokenizer.getReader());
+        }
+    }
+}
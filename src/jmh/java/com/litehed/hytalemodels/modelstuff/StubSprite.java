@@ -0,0 +1,28 @@
+package com.litehed.hytalemodels.modelstuff;
+
+import net.minecraft.client.renderer.texture.MissingTextureAtlasSprite;
+import net.minecraft.client.renderer.texture.TextureAtlasSprite;
+import net.minecraft.resources.Identifier;
+
+/**
+ * A sprite that is never uploaded, baking only reads its UV bounds and size
+ */
+final class StubSprite extends TextureAtlasSprite {
+
+    private static final Identifier ATLAS = Identifier.fromNamespaceAndPath("hytalemodelloader", "benchmark");
+
+    private StubSprite(int atlasWidth, int atlasHeight) {
+        super(ATLAS, MissingTextureAtlasSprite.create(), atlasWidth, atlasHeight, 0, 0);
+    }
+
+    /**
+     * Create a sprite that covers the top-left corner of an atlas
+     *
+     * @param atlasWidth  the width of the fake atlas
+     * @param atlasHeight the height of the fake atlas
+     * @return the sprite
+     */
+    static TextureAtlasSprite create(int atlasWidth, int atlasHeight) {
+        return new StubSprite(atlasWidth, atlasHeight);
+    }
+}
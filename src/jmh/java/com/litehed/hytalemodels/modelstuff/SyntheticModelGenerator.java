@@ -0,0 +1,99 @@
+package com.litehed.hytalemodels.modelstuff;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+import java.util.Random;
+
+/**
+ * Generates .blockymodel JSON of a chosen size and shape for benchmarks
+ * Nodes are laid out as chains of the requested depth, so the same node count can be measured
+ * as a flat model or as a deep hierarchy
+ */
+public final class SyntheticModelGenerator {
+
+    private static final String[] FACES = {"front", "back", "left", "right", "top", "bottom"};
+
+    private SyntheticModelGenerator() {
+    }
+
+    /**
+     * Generate a model
+     *
+     * @param nodeCount        the total number of nodes
+     * @param depth            the length of every parent-child chain, 1 for a flat model
+     * @param facesPerShape    the number of textured faces per shape, 0 to 6
+     * @param doubleSidedRatio the fraction of shapes that are double-sided
+     * @param seed             the random seed, the same arguments always give the same model
+     * @return the UTF-8 encoded model
+     */
+    public static byte[] generate(int nodeCount, int depth, int facesPerShape, float doubleSidedRatio, long seed) {
+        if (depth < 1 || facesPerShape < 0 || facesPerShape > FACES.length) {
+            throw new IllegalArgumentException("Invalid synthetic model parameters");
+        }
+
+        Random random = new Random(seed);
+        StringBuilder json = new StringBuilder(nodeCount * 512);
+        json.append("{\"nodes\":[");
+
+        int node = 0;
+        boolean firstRoot = true;
+        while (node < nodeCount) {
+            int chain = Math.min(depth, nodeCount - node);
+            if (!firstRoot) {
+                json.append(',');
+            }
+            firstRoot = false;
+
+            for (int level = 0; level < chain; level++) {
+                if (level > 0) {
+                    json.append(",\"children\":[");
+                }
+                appendNode(json, node++, random, facesPerShape, doubleSidedRatio);
+            }
+            for (int level = 0; level < chain; level++) {
+                json.append(level < chain - 1 ? "}]" : "}");
+            }
+        }
+
+        json.append("]}");
+        return json.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Append a node without closing it, so children can still be added
+     */
+    private static void appendNode(StringBuilder json, int index, Random random, int facesPerShape, float doubleSidedRatio) {
+        json.append("{\"id\":\"").append(index).append("\",\"name\":\"node_").append(index).append('"');
+        json.append(",\"position\":");
+        appendVector(json, random.nextFloat() * 32 - 16, random.nextFloat() * 32, random.nextFloat() * 32 - 16);
+
+        // Random unit quaternion
+        float x = random.nextFloat() - 0.5f, y = random.nextFloat() - 0.5f, z = random.nextFloat() - 0.5f, w = random.nextFloat();
+        float length = (float) Math.sqrt(x * x + y * y + z * z + w * w);
+        json.append(String.format(Locale.ROOT, ",\"orientation\":{\"x\":%.5f,\"y\":%.5f,\"z\":%.5f,\"w\":%.5f}",
+                x / length, y / length, z / length, w / length));
+
+        json.append(",\"shape\":{\"type\":\"box\",\"visible\":true");
+        json.append(",\"doubleSided\":").append(random.nextFloat() < doubleSidedRatio);
+        json.append(",\"offset\":");
+        appendVector(json, 0, random.nextInt(8), 0);
+        json.append(",\"stretch\":");
+        appendVector(json, 1, 1, 1);
+        json.append(",\"settings\":{\"size\":");
+        appendVector(json, 1 + random.nextInt(16), 1 + random.nextInt(16), 1 + random.nextInt(16));
+        json.append("},\"textureLayout\":{");
+        for (int face = 0; face < facesPerShape; face++) {
+            if (face > 0) {
+                json.append(',');
+            }
+            json.append('"').append(FACES[face]).append("\":{\"offset\":{\"x\":").append(random.nextInt(64))
+                    .append(",\"y\":").append(random.nextInt(64)).append("},\"mirror\":{\"x\":false,\"y\":false},\"angle\":")
+                    .append(random.nextInt(4) * 90).append('}');
+        }
+        json.append("}}");
+    }
+
+    private static void appendVector(StringBuilder json, float x, float y, float z) {
+        json.append(String.format(Locale.ROOT, "{\"x\":%.3f,\"y\":%.3f,\"z\":%.3f}", x, y, z));
+    }
+}
@@ -0,0 +1,42 @@
+package com.litehed.hytalemodels.modelstuff;
+
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.io.ByteArrayInputStream;
+
+/**
+ * Shared benchmark parameters, every benchmark runs against the same synthetic models
+ */
+@State(Scope.Benchmark)
+public abstract class SyntheticModelState {
+
+    private static final long SEED = 0x5EEDL;
+
+    @Param({"64", "512", "4096"})
+    public int nodeCount;
+
+    @Param({"1", "8", "64"})
+    public int depth;
+
+    @Param({"6"})
+    public int facesPerShape;
+
+    @Param({"0.25"})
+    public float doubleSidedRatio;
+
+    protected byte[] model;
+
+    @Setup
+    public void generateModel() throws Exception {
+        model = SyntheticModelGenerator.generate(nodeCount, depth, facesPerShape, doubleSidedRatio, SEED);
+    }
+
+    protected BlockyNodeStore parseModel() throws Exception {
+        try (BlockyModelTokenizer tokenizer = new BlockyModelTokenizer(new ByteArrayInputStream(model))) {
+            return BlockyModelStreamParser.parseNodes(tokenizer.getReader());
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package com.litehed.hytalemodels.modelstuff;
+
+import org.joml.Quaternionf;
+import org.joml.Vector3f;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * World transform computation, the linear pass over the node store against the per-node parent walk
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TransformBenchmark extends SyntheticModelState {
+
+    private BlockyNodeStore store;
+    private List<BlockyModelGeometry.BlockyNode> nodes;
+    private float[] localPositions;
+    private float[] localOrientations;
+    private float[] worldPositions;
+    private float[] worldOrientations;
+
+    @Setup
+    public void parse() throws Exception {
+        store = parseModel();
+        nodes = store.nodes();
+        localPositions = new float[store.size() * 3];
+        localOrientations = new float[store.size() * 4];
+        worldPositions = new float[store.size() * 3];
+        worldOrientations = new float[store.size() * 4];
+        store.copyLocalTransforms(localPositions, localOrientations);
+    }
+
+    @Benchmark
+    public float[] linearPass() {
+        store.calculateWorldTransforms(localPositions, localOrientations, worldPositions, worldOrientations);
+        return worldPositions;
+    }
+
+    @Benchmark
+    public void parentWalk(Blackhole blackhole) {
+        for (BlockyModelGeometry.BlockyNode node : nodes) {
+            Vector3f position = TransformCalculator.calculateWorldPosition(node);
+            Quaternionf orientation = TransformCalculator.calculateWorldOrientation(node);
+            blackhole.consume(position);
+            blackhole.consume(orientation);
+        }
+    }
+}
@@ -4,5 +4,18 @@ import net.neoforged.neoforge.common.ModConfigSpec;
 
 public class Config {
     private static final ModConfigSpec.Builder BUILDER = new ModConfigSpec.Builder();
+
+    public static final ModConfigSpec.BooleanValue STREAMING_PARSER = BUILDER
+            .comment("Parse .blockymodel files with the streaming parser instead of building a full JSON tree first")
+            .define("streamingParser", true);
+
+    public static final ModConfigSpec.BooleanValue TRACE_RELOADS = BUILDER
+            .comment("Record a timeline of every resource reload and write it to the game directory as a Chrome trace-event file")
+            .define("traceReloads", false);
+
+    public static final ModConfigSpec.BooleanValue LAZY_BAKE = BUILDER
+            .comment("Only bake Blocky models rendered in the previous session during a reload, every other model is baked when it is first rendered")
+            .define("lazyBake", false);
+
     static final ModConfigSpec SPEC = BUILDER.build();
 }
@@ -1,5 +1,6 @@
 package com.litehed.hytalemodels;
 
+import com.litehed.hytalemodels.init.BlockEntityInit;
 import com.litehed.hytalemodels.init.BlockInit;
 import com.litehed.hytalemodels.init.ItemInit;
 import com.mojang.logging.LogUtils;
@@ -16,6 +17,9 @@ public class HytaleModelLoader {
     public static final Logger LOGGER = LogUtils.getLogger();
 
     public HytaleModelLoader(IEventBus modEventBus, ModContainer modContainer) {
+        // Shared block entity type for BlockyAnimatedBlocks, also used by other mods
+        BlockEntityInit.BLOCK_ENTITIES.register(modEventBus);
+
         // Remember to comment these out for version releases
         BlockInit.BLOCKS.register(modEventBus);
         ItemInit.ITEMS.register(modEventBus);
@@ -1,16 +1,25 @@
 package com.litehed.hytalemodels;
 
+import com.litehed.hytalemodels.animation.BlockyAnimationLoader;
+import com.litehed.hytalemodels.init.BlockEntityInit;
 import com.litehed.hytalemodels.modelstuff.BlockyModelLoader;
+import com.litehed.hytalemodels.modelstuff.BlockyModelUsage;
+import com.litehed.hytalemodels.profiling.BlockyModelMemoryCommand;
+import com.litehed.hytalemodels.profiling.BlockyModelStats;
+import com.litehed.hytalemodels.render.BlockyAnimatedBlockRenderer;
 import net.neoforged.api.distmarker.Dist;
 import net.neoforged.bus.api.SubscribeEvent;
 import net.neoforged.fml.ModContainer;
 import net.neoforged.fml.common.EventBusSubscriber;
 import net.neoforged.fml.common.Mod;
 import net.neoforged.neoforge.client.event.AddClientReloadListenersEvent;
+import net.neoforged.neoforge.client.event.EntityRenderersEvent;
 import net.neoforged.neoforge.client.event.ModelEvent;
+import net.neoforged.neoforge.client.event.RegisterClientCommandsEvent;
 import net.neoforged.neoforge.client.gui.ConfigurationScreen;
 import net.neoforged.neoforge.client.gui.IConfigScreenFactory;
 import net.neoforged.neoforge.client.resources.VanillaClientListeners;
+import net.neoforged.neoforge.event.GameShuttingDownEvent;
 
 // This class will not load on dedicated servers. Accessing client side code from here is safe.
 @Mod(value = HytaleModelLoader.MODID, dist = Dist.CLIENT)
@@ -20,6 +29,7 @@ public class HytaleModelLoaderClient {
     public HytaleModelLoaderClient(ModContainer container) {
         // Do not forget to add translations for your config options to the en_us.json file.
         container.registerExtensionPoint(IConfigScreenFactory.class, ConfigurationScreen::new);
+        BlockyModelStats.register();
     }
 
     @SubscribeEvent
@@ -27,9 +37,25 @@ public class HytaleModelLoaderClient {
         event.register(BlockyModelLoader.ID, BlockyModelLoader.INSTANCE);
     }
 
+    @SubscribeEvent
+    public static void onRegisterClientCommands(RegisterClientCommandsEvent event) {
+        BlockyModelMemoryCommand.register(event.getDispatcher());
+    }
+
+    @SubscribeEvent
+    public static void onRegisterRenderers(EntityRenderersEvent.RegisterRenderers event) {
+        event.registerBlockEntityRenderer(BlockEntityInit.BLOCKY_ANIMATED.get(), BlockyAnimatedBlockRenderer::new);
+    }
+
     @SubscribeEvent
     public static void onRegisterReloadListeners(AddClientReloadListenersEvent event) {
         event.addListener(BlockyModelLoader.ID, BlockyModelLoader.INSTANCE);
         event.addDependency(BlockyModelLoader.ID, VanillaClientListeners.MODELS);
+        event.addListener(BlockyAnimationLoader.ID, BlockyAnimationLoader.INSTANCE);
+    }
+
+    @SubscribeEvent
+    public static void onGameShuttingDown(GameShuttingDownEvent event) {
+        BlockyModelUsage.save();
     }
 }
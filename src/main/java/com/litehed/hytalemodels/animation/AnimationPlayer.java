@@ -0,0 +1,62 @@
+package com.litehed.hytalemodels.animation;
+
+/**
+ * Plays a shared {@link AnimationPoseTable} for a single model instance
+ * The player only owns the current pose, sampling never allocates
+ */
+public final class AnimationPlayer {
+
+    private final AnimationPoseTable table;
+    private final float[] positions;
+    private final float[] orientations;
+    private float speed = 1.0f;
+    private float lastTime = Float.NaN;
+
+    public AnimationPlayer(AnimationPoseTable table) {
+        this.table = table;
+        this.positions = new float[table.nodeCount() * 3];
+        this.orientations = new float[table.nodeCount() * 4];
+    }
+
+    public AnimationPoseTable getTable() {
+        return table;
+    }
+
+    public void setSpeed(float speed) {
+        this.speed = speed;
+    }
+
+    /**
+     * Update the pose for a point in time
+     *
+     * @param seconds the time in seconds since the animation started
+     * @return true if the pose changed since the last update
+     */
+    public boolean update(float seconds) {
+        float time = table.wrap(seconds * speed * BlockyAnimation.FRAMES_PER_SECOND);
+        if (time == lastTime) {
+            return false;
+        }
+        lastTime = time;
+        table.sample(time, positions, orientations);
+        return true;
+    }
+
+    /**
+     * Get the world positions of the current pose, 3 floats per node
+     *
+     * @return the live position array, must not be modified
+     */
+    public float[] positions() {
+        return positions;
+    }
+
+    /**
+     * Get the world orientations of the current pose, 4 floats per node
+     *
+     * @return the live orientation array, must not be modified
+     */
+    public float[] orientations() {
+        return orientations;
+    }
+}
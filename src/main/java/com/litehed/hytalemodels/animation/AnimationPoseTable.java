@@ -0,0 +1,273 @@
+package com.litehed.hytalemodels.animation;
+
+import com.litehed.hytalemodels.HytaleModelLoader;
+import com.litehed.hytalemodels.modelstuff.BlockyNodeStore;
+import org.joml.Quaternionf;
+
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+/**
+ * A clip pre-sampled against one model at {@link BlockyAnimation#FRAMES_PER_SECOND}
+ * Every frame holds the world position and orientation of every node in flat arrays, so sampling at runtime
+ * is an index and an interpolation between two frames without any allocation
+ * Tables are shared by every instance playing the same clip on the same model, see {@link #get}
+ */
+public final class AnimationPoseTable {
+
+    // Shared tables per model and clip, models are weak so replaced models drop their tables
+    private static final Map<BlockyNodeStore, Map<BlockyAnimation, AnimationPoseTable>> CACHE = new WeakHashMap<>();
+
+    private final int nodeCount;
+    private final int frameCount;
+    private final boolean holdLastKeyframe;
+    private final float[] positions;    // 3 per node per frame
+    private final float[] orientations; // 4 per node per frame
+    private final boolean[] animated;   // per node, whether its world transform changes over the clip
+
+    private AnimationPoseTable(int nodeCount, int frameCount, boolean holdLastKeyframe) {
+        this.nodeCount = nodeCount;
+        this.frameCount = frameCount;
+        this.holdLastKeyframe = holdLastKeyframe;
+        this.positions = new float[frameCount * nodeCount * 3];
+        this.orientations = new float[frameCount * nodeCount * 4];
+        this.animated = new boolean[nodeCount];
+    }
+
+    /**
+     * Get the shared table of a clip for a model, sampling it on first use
+     *
+     * @param store the node store of the model
+     * @param clip  the animation clip
+     * @return the shared pose table
+     */
+    public static AnimationPoseTable get(BlockyNodeStore store, BlockyAnimation clip) {
+        synchronized (CACHE) {
+            return CACHE.computeIfAbsent(store, s -> new IdentityHashMap<>())
+                    .computeIfAbsent(clip, c -> bake(store, c));
+        }
+    }
+
+    /**
+     * Drop all shared tables, called when animations are reloaded
+     */
+    public static void clearCache() {
+        synchronized (CACHE) {
+            CACHE.clear();
+        }
+    }
+
+    /**
+     * Sample a clip at every frame
+     *
+     * @param store the node store of the model
+     * @param clip  the animation clip
+     * @return the pose table
+     */
+    public static AnimationPoseTable bake(BlockyNodeStore store, BlockyAnimation clip) {
+        int nodeCount = store.size();
+        AnimationPoseTable table = new AnimationPoseTable(nodeCount, clip.duration() + 1, clip.holdLastKeyframe());
+
+        BlockyAnimation.NodeTrack[] tracks = new BlockyAnimation.NodeTrack[nodeCount];
+        for (Map.Entry<String, BlockyAnimation.NodeTrack> entry : clip.tracks().entrySet()) {
+            int node = store.findNode(entry.getKey());
+            if (node < 0) {
+                HytaleModelLoader.LOGGER.debug("[AnimationPoseTable] Animated node {} is not part of the model, skipping", entry.getKey());
+                continue;
+            }
+            tracks[node] = entry.getValue();
+        }
+
+        float[] bindPositions = new float[nodeCount * 3];
+        float[] bindOrientations = new float[nodeCount * 4];
+        store.copyLocalTransforms(bindPositions, bindOrientations);
+
+        float[] localPositions = new float[nodeCount * 3];
+        float[] localOrientations = new float[nodeCount * 4];
+        float[] worldPositions = new float[nodeCount * 3];
+        float[] worldOrientations = new float[nodeCount * 4];
+        float[] delta = new float[4];
+        Quaternionf rotation = new Quaternionf();
+        Quaternionf deltaRotation = new Quaternionf();
+        Quaternionf from = new Quaternionf();
+        Quaternionf to = new Quaternionf();
+
+        for (int frame = 0; frame < table.frameCount; frame++) {
+            System.arraycopy(bindPositions, 0, localPositions, 0, bindPositions.length);
+            System.arraycopy(bindOrientations, 0, localOrientations, 0, bindOrientations.length);
+
+            for (int node = 0; node < nodeCount; node++) {
+                BlockyAnimation.NodeTrack track = tracks[node];
+                if (track == null) {
+                    continue;
+                }
+                if (!track.position().isEmpty()) {
+                    sampleVector(track.position(), frame, delta);
+                    localPositions[node * 3] += delta[0];
+                    localPositions[node * 3 + 1] += delta[1];
+                    localPositions[node * 3 + 2] += delta[2];
+                }
+                if (!track.orientation().isEmpty()) {
+                    sampleQuaternion(track.orientation(), frame, from, to, deltaRotation);
+                    int n4 = node * 4;
+                    rotation.set(localOrientations[n4], localOrientations[n4 + 1], localOrientations[n4 + 2], localOrientations[n4 + 3])
+                            .mul(deltaRotation);
+                    localOrientations[n4] = rotation.x;
+                    localOrientations[n4 + 1] = rotation.y;
+                    localOrientations[n4 + 2] = rotation.z;
+                    localOrientations[n4 + 3] = rotation.w;
+                }
+            }
+
+            store.calculateWorldTransforms(localPositions, localOrientations, worldPositions, worldOrientations);
+            System.arraycopy(worldPositions, 0, table.positions, frame * nodeCount * 3, worldPositions.length);
+            System.arraycopy(worldOrientations, 0, table.orientations, frame * nodeCount * 4, worldOrientations.length);
+        }
+
+        table.findAnimatedNodes();
+        return table;
+    }
+
+    /**
+     * Sample the clip, interpolating between the two nearest frames
+     * Looping clips wrap around, clips that hold their last keyframe are clamped
+     *
+     * @param frameTime         the time in frames since the clip started
+     * @param outPositions      output for the world positions, 3 floats per node
+     * @param outOrientations   output for the world orientations, 4 floats per node
+     */
+    public void sample(float frameTime, float[] outPositions, float[] outOrientations) {
+        float time = wrap(frameTime);
+        int frame = Math.min((int) time, frameCount - 1);
+        int next = Math.min(frame + 1, frameCount - 1);
+        float alpha = time - frame;
+
+        int a3 = frame * nodeCount * 3, b3 = next * nodeCount * 3;
+        for (int i = 0; i < nodeCount * 3; i++) {
+            outPositions[i] = positions[a3 + i] + (positions[b3 + i] - positions[a3 + i]) * alpha;
+        }
+
+        int a4 = frame * nodeCount * 4, b4 = next * nodeCount * 4;
+        for (int node = 0; node < nodeCount; node++) {
+            int o = node * 4;
+            float ax = orientations[a4 + o], ay = orientations[a4 + o + 1], az = orientations[a4 + o + 2], aw = orientations[a4 + o + 3];
+            float bx = orientations[b4 + o], by = orientations[b4 + o + 1], bz = orientations[b4 + o + 2], bw = orientations[b4 + o + 3];
+            // Take the short way around, then normalize the blend
+            float sign = ax * bx + ay * by + az * bz + aw * bw < 0 ? -1.0f : 1.0f;
+            float x = ax + (bx * sign - ax) * alpha;
+            float y = ay + (by * sign - ay) * alpha;
+            float z = az + (bz * sign - az) * alpha;
+            float w = aw + (bw * sign - aw) * alpha;
+            float invLength = 1.0f / (float) Math.sqrt(x * x + y * y + z * z + w * w);
+            outOrientations[o] = x * invLength;
+            outOrientations[o + 1] = y * invLength;
+            outOrientations[o + 2] = z * invLength;
+            outOrientations[o + 3] = w * invLength;
+        }
+    }
+
+    /**
+     * Map a time in frames into the clip, wrapping or clamping it
+     *
+     * @param frameTime the time in frames since the clip started
+     * @return the time within the clip
+     */
+    public float wrap(float frameTime) {
+        int duration = frameCount - 1;
+        if (duration == 0) {
+            return 0;
+        }
+        if (holdLastKeyframe) {
+            return Math.max(0, Math.min(frameTime, duration));
+        }
+        float time = frameTime % duration;
+        return time < 0 ? time + duration : time;
+    }
+
+    public int nodeCount() {
+        return nodeCount;
+    }
+
+    public int frameCount() {
+        return frameCount;
+    }
+
+    /**
+     * Check whether a node moves at any point of the clip
+     *
+     * @param node the node index
+     * @return true if the world transform of the node is not constant
+     */
+    public boolean isAnimated(int node) {
+        return animated[node];
+    }
+
+    private void findAnimatedNodes() {
+        for (int node = 0; node < nodeCount; node++) {
+            for (int frame = 1; frame < frameCount && !animated[node]; frame++) {
+                animated[node] = !equalRange(positions, node * 3, frame * nodeCount * 3 + node * 3, 3)
+                        || !equalRange(orientations, node * 4, frame * nodeCount * 4 + node * 4, 4);
+            }
+        }
+    }
+
+    private static boolean equalRange(float[] array, int a, int b, int length) {
+        for (int i = 0; i < length; i++) {
+            if (array[a + i] != array[b + i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Sample a vector channel at a time, values before the first and after the last keyframe are held
+     */
+    private static void sampleVector(BlockyAnimation.Keyframes keyframes, float time, float[] out) {
+        int segment = findSegment(keyframes, time);
+        float alpha = segmentAlpha(keyframes, segment, time);
+        int next = Math.min(segment + 1, keyframes.size() - 1);
+        float[] values = keyframes.values();
+        for (int c = 0; c < 3; c++) {
+            float a = values[segment * 3 + c];
+            out[c] = a + (values[next * 3 + c] - a) * alpha;
+        }
+    }
+
+    /**
+     * Sample a quaternion channel at a time with spherical interpolation
+     */
+    private static void sampleQuaternion(BlockyAnimation.Keyframes keyframes, float time,
+                                         Quaternionf from, Quaternionf to, Quaternionf out) {
+        int segment = findSegment(keyframes, time);
+        float alpha = segmentAlpha(keyframes, segment, time);
+        int next = Math.min(segment + 1, keyframes.size() - 1);
+        float[] values = keyframes.values();
+        from.set(values[segment * 4], values[segment * 4 + 1], values[segment * 4 + 2], values[segment * 4 + 3]).normalize();
+        to.set(values[next * 4], values[next * 4 + 1], values[next * 4 + 2], values[next * 4 + 3]).normalize();
+        from.slerp(to, alpha, out);
+    }
+
+    /**
+     * Find the keyframe that starts the segment containing a time
+     */
+    private static int findSegment(BlockyAnimation.Keyframes keyframes, float time) {
+        float[] times = keyframes.times();
+        int segment = 0;
+        while (segment + 1 < times.length && times[segment + 1] <= time) {
+            segment++;
+        }
+        return segment;
+    }
+
+    private static float segmentAlpha(BlockyAnimation.Keyframes keyframes, int segment, float time) {
+        float[] times = keyframes.times();
+        if (segment + 1 >= times.length || time <= times[segment]) {
+            return 0;
+        }
+        float alpha = (time - times[segment]) / (times[segment + 1] - times[segment]);
+        // Smooth segments ease in and out
+        return keyframes.smooth()[segment] ? alpha * alpha * (3 - 2 * alpha) : alpha;
+    }
+}
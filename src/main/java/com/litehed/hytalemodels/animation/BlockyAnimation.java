@@ -0,0 +1,43 @@
+package com.litehed.hytalemodels.animation;
+
+import java.util.Map;
+
+/**
+ * A parsed .blockyanim clip
+ * Times are in frames at {@link #FRAMES_PER_SECOND}, keyframe values are deltas on top of the bind pose of a node
+ *
+ * @param duration         the clip length in frames
+ * @param holdLastKeyframe whether the last frame is held once the clip ends instead of looping
+ * @param tracks           the animated tracks keyed by node id or name
+ */
+public record BlockyAnimation(int duration, boolean holdLastKeyframe, Map<String, NodeTrack> tracks) {
+
+    public static final int FRAMES_PER_SECOND = 60;
+
+    /**
+     * The keyframes of a single node
+     *
+     * @param position    position deltas, 3 values per keyframe, may be empty
+     * @param orientation orientation deltas as quaternions, 4 values per keyframe, may be empty
+     */
+    public record NodeTrack(Keyframes position, Keyframes orientation) {
+    }
+
+    /**
+     * Keyframes of one channel, sorted by time
+     *
+     * @param times  the keyframe times in frames
+     * @param values the keyframe values, a fixed number per keyframe
+     * @param smooth whether the segment starting at each keyframe eases in and out instead of being linear
+     */
+    public record Keyframes(float[] times, float[] values, boolean[] smooth) {
+
+        public int size() {
+            return times.length;
+        }
+
+        public boolean isEmpty() {
+            return times.length == 0;
+        }
+    }
+}
@@ -0,0 +1,125 @@
+package com.litehed.hytalemodels.animation;
+
+import com.google.common.collect.Maps;
+import com.google.gson.JsonParser;
+import com.litehed.hytalemodels.HytaleModelLoader;
+import com.litehed.hytalemodels.blocks.BlockyAnimatedBlock;
+import net.minecraft.client.Minecraft;
+import net.minecraft.core.registries.BuiltInRegistries;
+import net.minecraft.resources.Identifier;
+import net.minecraft.server.packs.resources.Resource;
+import net.minecraft.server.packs.resources.ResourceManager;
+import net.minecraft.server.packs.resources.SimplePreparableReloadListener;
+import net.minecraft.util.Util;
+import net.minecraft.util.profiling.ProfilerFiller;
+import net.minecraft.world.level.block.Block;
+
+import java.io.Reader;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Loads every .blockyanim clip under the animations directory of the resource packs, the clips of every
+ * BlockyAnimatedBlock and every clip a renderer asked for with {@link #require}
+ * All clips are read while resources reload, so {@link #getAnimation} never touches resources
+ */
+public class BlockyAnimationLoader extends SimplePreparableReloadListener<Map<Identifier, BlockyAnimation>> {
+
+    public static final BlockyAnimationLoader INSTANCE = new BlockyAnimationLoader();
+    public static final Identifier ID = Identifier.fromNamespaceAndPath(HytaleModelLoader.MODID, "blockyanim_loader");
+    public static final String EXTENSION = ".blockyanim";
+    private static final String DIRECTORY = "animations";
+    private final Map<Identifier, BlockyAnimation> animations = Maps.newConcurrentMap();
+    // Clips renderers asked for, loaded with every reload even outside the animations directory
+    private final Set<Identifier> required = ConcurrentHashMap.newKeySet();
+
+    @Override
+    protected Map<Identifier, BlockyAnimation> prepare(ResourceManager resourceManager, ProfilerFiller profiler) {
+        Map<Identifier, BlockyAnimation> loaded = new HashMap<>();
+        resourceManager.listResources(DIRECTORY, location -> location.getPath().endsWith(EXTENSION))
+                .forEach((location, resource) -> {
+                    try {
+                        loaded.put(location, read(resource));
+                    } catch (Exception e) {
+                        HytaleModelLoader.LOGGER.warn("[BlockyAnimationLoader] Failed to load animation {}", location, e);
+                    }
+                });
+
+        Set<Identifier> locations = new HashSet<>(required);
+        for (Block block : BuiltInRegistries.BLOCK) {
+            if (block instanceof BlockyAnimatedBlock animatedBlock) {
+                locations.add(animatedBlock.getAnimationLocation());
+            }
+        }
+        for (Identifier location : locations) {
+            if (!loaded.containsKey(location)) {
+                load(resourceManager, location).ifPresent(clip -> loaded.put(location, clip));
+            }
+        }
+        return loaded;
+    }
+
+    /**
+     * Replaces the loaded clips, pose tables sampled from the old clips are dropped
+     *
+     * @param prepared        the clips loaded during prepare
+     * @param resourceManager the resource manager of this reload
+     * @param profiler        the profiler
+     */
+    @Override
+    protected void apply(Map<Identifier, BlockyAnimation> prepared, ResourceManager resourceManager, ProfilerFiller profiler) {
+        animations.clear();
+        animations.putAll(prepared);
+        AnimationPoseTable.clearCache();
+        HytaleModelLoader.LOGGER.debug("[BlockyAnimationLoader] Loaded {} animations", prepared.size());
+    }
+
+    /**
+     * Load a clip with every resource reload, for renderers whose clip may live outside the animations directory
+     * A clip that is not loaded yet is read on the background executor
+     *
+     * @param location the location of the clip
+     */
+    public void require(Identifier location) {
+        if (required.add(location) && !animations.containsKey(location)) {
+            ResourceManager resourceManager = Minecraft.getInstance().getResourceManager();
+            CompletableFuture.runAsync(() -> load(resourceManager, location)
+                    .ifPresent(clip -> animations.putIfAbsent(location, clip)), Util.backgroundExecutor());
+        }
+    }
+
+    /**
+     * Get a clip by the location of its .blockyanim file
+     *
+     * @param location the location of the clip
+     * @return the clip, or null if it was not loaded or cannot be parsed
+     */
+    public BlockyAnimation getAnimation(Identifier location) {
+        return animations.get(location);
+    }
+
+    private static Optional<BlockyAnimation> load(ResourceManager resourceManager, Identifier location) {
+        Optional<Resource> resource = resourceManager.getResource(location);
+        if (resource.isEmpty()) {
+            HytaleModelLoader.LOGGER.warn("[BlockyAnimationLoader] Could not find animation {}", location);
+            return Optional.empty();
+        }
+        try {
+            return Optional.of(read(resource.get()));
+        } catch (Exception e) {
+            HytaleModelLoader.LOGGER.warn("[BlockyAnimationLoader] Failed to load animation {}", location, e);
+            return Optional.empty();
+        }
+    }
+
+    private static BlockyAnimation read(Resource resource) throws Exception {
+        try (Reader reader = resource.openAsReader()) {
+            return BlockyAnimationParser.parse(JsonParser.parseReader(reader).getAsJsonObject());
+        }
+    }
+}
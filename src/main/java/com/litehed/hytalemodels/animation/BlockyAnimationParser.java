@@ -0,0 +1,98 @@
+package com.litehed.hytalemodels.animation;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParseException;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+public class BlockyAnimationParser {
+
+    private static final String[] POSITION_COMPONENTS = {"x", "y", "z"};
+    private static final String[] ORIENTATION_COMPONENTS = {"x", "y", "z", "w"};
+    private static final float[] POSITION_IDENTITY = {0, 0, 0};
+    private static final float[] ORIENTATION_IDENTITY = {0, 0, 0, 1};
+
+    /**
+     * Parse an animation clip from the root JsonObject of a .blockyanim file
+     *
+     * @param root the root JsonObject
+     * @return the parsed clip
+     * @throws JsonParseException if required fields are missing or invalid
+     */
+    public static BlockyAnimation parse(JsonObject root) throws JsonParseException {
+        if (!root.has("duration")) {
+            throw new JsonParseException("BlockyAnim file must contain a 'duration'");
+        }
+        int duration = root.get("duration").getAsInt();
+        if (duration < 0) {
+            throw new JsonParseException("BlockyAnim duration must not be negative: " + duration);
+        }
+        boolean holdLastKeyframe = root.has("holdLastKeyframe") && root.get("holdLastKeyframe").getAsBoolean();
+
+        Map<String, BlockyAnimation.NodeTrack> tracks = new HashMap<>();
+        if (root.has("nodeAnimations")) {
+            for (Map.Entry<String, JsonElement> entry : root.getAsJsonObject("nodeAnimations").entrySet()) {
+                JsonObject nodeObj = entry.getValue().getAsJsonObject();
+                BlockyAnimation.NodeTrack track = new BlockyAnimation.NodeTrack(
+                        parseKeyframes(nodeObj, "position", POSITION_COMPONENTS, POSITION_IDENTITY),
+                        parseKeyframes(nodeObj, "orientation", ORIENTATION_COMPONENTS, ORIENTATION_IDENTITY)
+                );
+                if (!track.position().isEmpty() || !track.orientation().isEmpty()) {
+                    tracks.put(entry.getKey(), track);
+                }
+            }
+        }
+
+        return new BlockyAnimation(duration, holdLastKeyframe, Map.copyOf(tracks));
+    }
+
+    /**
+     * Parse one keyframe channel of a node
+     *
+     * @param nodeObj    the JsonObject of the node animation
+     * @param key        the channel key
+     * @param components the component names of a keyframe delta
+     * @param defaults   the default value of every component
+     * @return the keyframes sorted by time
+     */
+    private static BlockyAnimation.Keyframes parseKeyframes(JsonObject nodeObj, String key, String[] components,
+                                                            float[] defaults) {
+        if (!nodeObj.has(key)) {
+            return new BlockyAnimation.Keyframes(new float[0], new float[0], new boolean[0]);
+        }
+
+        JsonArray array = nodeObj.getAsJsonArray(key);
+        List<JsonObject> keyframes = new ArrayList<>(array.size());
+        for (JsonElement element : array) {
+            JsonObject keyframe = element.getAsJsonObject();
+            if (!keyframe.has("time")) {
+                throw new JsonParseException("BlockyAnim keyframe missing required field: 'time'");
+            }
+            keyframes.add(keyframe);
+        }
+        keyframes.sort(Comparator.comparingDouble(keyframe -> keyframe.get("time").getAsFloat()));
+
+        int stride = components.length;
+        float[] times = new float[keyframes.size()];
+        float[] values = new float[keyframes.size() * stride];
+        boolean[] smooth = new boolean[keyframes.size()];
+        for (int i = 0; i < keyframes.size(); i++) {
+            JsonObject keyframe = keyframes.get(i);
+            times[i] = keyframe.get("time").getAsFloat();
+            smooth[i] = keyframe.has("interpolationType")
+                    && keyframe.get("interpolationType").getAsString().equalsIgnoreCase("smooth");
+
+            JsonObject delta = keyframe.has("delta") ? keyframe.getAsJsonObject("delta") : new JsonObject();
+            for (int c = 0; c < stride; c++) {
+                values[i * stride + c] = delta.has(components[c]) ? delta.get(components[c]).getAsFloat() : defaults[c];
+            }
+        }
+        return new BlockyAnimation.Keyframes(times, values, smooth);
+    }
+}
@@ -0,0 +1,59 @@
+package com.litehed.hytalemodels.blocks;
+
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.Direction;
+import net.minecraft.resources.Identifier;
+import net.minecraft.world.level.BlockGetter;
+import net.minecraft.world.level.block.EntityBlock;
+import net.minecraft.world.level.block.RenderShape;
+import net.minecraft.world.level.block.entity.BlockEntity;
+import net.minecraft.world.level.block.state.BlockState;
+import net.minecraft.world.phys.shapes.Shapes;
+import net.minecraft.world.phys.shapes.VoxelShape;
+
+/**
+ * A BlockyModel block that plays a .blockyanim clip through its block entity renderer
+ * The block is not part of the chunk mesh, so animating it never rebuilds chunk sections
+ * The block model is still baked, the renderer takes its textures, render type and root transform from it
+ */
+public class BlockyAnimatedBlock extends BlockyModelBlock implements EntityBlock {
+
+    private final Identifier animationLocation;
+
+    /**
+     * Constructor for BlockyAnimatedBlock
+     *
+     * @param properties        the block properties
+     * @param modelLocation     the location of the .blockymodel file
+     * @param animationLocation the location of the .blockyanim clip to play
+     */
+    public BlockyAnimatedBlock(Properties properties, Identifier modelLocation, Identifier animationLocation) {
+        super(properties, modelLocation);
+        this.animationLocation = animationLocation;
+    }
+
+    public Identifier getAnimationLocation() {
+        return animationLocation;
+    }
+
+    @Override
+    public BlockEntity newBlockEntity(BlockPos pos, BlockState state) {
+        return new BlockyAnimatedBlockEntity(pos, state);
+    }
+
+    @Override
+    protected RenderShape getRenderShape(BlockState state) {
+        return RenderShape.INVISIBLE;
+    }
+
+    @Override
+    protected VoxelShape getOcclusionShape(BlockState state) {
+        // Animated parts move, so they never hide neighbour faces
+        return Shapes.empty();
+    }
+
+    @Override
+    public boolean hidesNeighborFace(BlockGetter level, BlockPos pos, BlockState state, BlockState neighborState, Direction dir) {
+        return false;
+    }
+}
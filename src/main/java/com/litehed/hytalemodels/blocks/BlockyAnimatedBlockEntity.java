@@ -0,0 +1,13 @@
+package com.litehed.hytalemodels.blocks;
+
+import com.litehed.hytalemodels.init.BlockEntityInit;
+import net.minecraft.core.BlockPos;
+import net.minecraft.world.level.block.entity.BlockEntity;
+import net.minecraft.world.level.block.state.BlockState;
+
+public class BlockyAnimatedBlockEntity extends BlockEntity {
+
+    public BlockyAnimatedBlockEntity(BlockPos pos, BlockState state) {
+        super(BlockEntityInit.BLOCKY_ANIMATED.get(), pos, state);
+    }
+}
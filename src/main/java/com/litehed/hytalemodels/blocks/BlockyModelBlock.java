@@ -0,0 +1,139 @@
+package com.litehed.hytalemodels.blocks;
+
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.Direction;
+import net.minecraft.core.registries.BuiltInRegistries;
+import net.minecraft.resources.Identifier;
+import net.minecraft.world.level.BlockGetter;
+import net.minecraft.world.level.block.Block;
+import net.minecraft.world.level.block.HorizontalDirectionalBlock;
+import net.minecraft.world.level.block.state.BlockState;
+import net.minecraft.world.phys.AABB;
+import net.minecraft.world.phys.shapes.BooleanOp;
+import net.minecraft.world.phys.shapes.Shapes;
+import net.minecraft.world.phys.shapes.VoxelShape;
+
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Base class for blocks rendered with a BlockyModel
+ * Models opt in to hiding neighbour faces by setting {@code "solid": true} in their model JSON and keeping the
+ * solid render type
+ * The hiding shape is built from the closed boxes of the model as the loader resolved and placed it,
+ * a variant is precomputed for every horizontal FACING
+ * The shape comes from client resources, so it only culls faces while chunks are meshed and never reaches the
+ * occlusion shape, lighting and collision stay the same on client and server
+ */
+public class BlockyModelBlock extends Block {
+
+    // Block space boxes per .blockymodel location, published by the client model loader after every resource reload
+    private static volatile Map<Identifier, List<AABB>> faceHidingBoxes = Map.of();
+
+    private final Identifier modelLocation;
+    private volatile Map<Direction, VoxelShape> faceHidingShapes;
+
+    /**
+     * Constructor for BlockyModelBlock
+     *
+     * @param properties    the block properties
+     * @param modelLocation the location of the .blockymodel file the block model uses
+     */
+    public BlockyModelBlock(Properties properties, Identifier modelLocation) {
+        super(properties);
+        this.modelLocation = modelLocation;
+    }
+
+    public Identifier getModelLocation() {
+        return modelLocation;
+    }
+
+    /**
+     * Replace the face hiding boxes of every model, the shapes of all BlockyModel blocks are rebuilt on next use
+     * Block state caches are left alone, chunks are meshed again after the resource reload that calls this
+     *
+     * @param boxes the block space boxes per .blockymodel location, of the models marked solid
+     */
+    public static void setFaceHidingBoxes(Map<Identifier, List<AABB>> boxes) {
+        faceHidingBoxes = boxes;
+        for (Block block : BuiltInRegistries.BLOCK) {
+            if (block instanceof BlockyModelBlock blockyBlock) {
+                blockyBlock.faceHidingShapes = null;
+            }
+        }
+    }
+
+    /**
+     * Hide the face of a neighbour while chunks are meshed when the solid boxes of the model cover it
+     * Faces of neighbours without an occlusion shape must be covered across the whole block side
+     */
+    @Override
+    public boolean hidesNeighborFace(BlockGetter level, BlockPos pos, BlockState state, BlockState neighborState, Direction dir) {
+        Direction facing = state.getOptionalValue(HorizontalDirectionalBlock.FACING).orElse(Direction.SOUTH);
+        VoxelShape shape = getFaceHidingShapes().get(facing);
+        if (shape.isEmpty()) {
+            return false;
+        }
+        VoxelShape neighborFace = neighborState.getFaceOcclusionShape(dir.getOpposite());
+        if (neighborFace.isEmpty()) {
+            neighborFace = Shapes.block().getFaceShape(dir.getOpposite());
+        }
+        return !Shapes.joinIsNotEmpty(neighborFace, shape.getFaceShape(dir), BooleanOp.ONLY_FIRST);
+    }
+
+    private Map<Direction, VoxelShape> getFaceHidingShapes() {
+        Map<Direction, VoxelShape> shapes = faceHidingShapes;
+        if (shapes == null) {
+            faceHidingShapes = shapes = createFaceHidingShapes(faceHidingBoxes.getOrDefault(modelLocation, List.of()));
+        }
+        return shapes;
+    }
+
+    /**
+     * Builds the face hiding shape of a model for every horizontal facing
+     * Facings follow the blockstate rotations of the bundled models: south is unrotated, then 90 degrees per step
+     *
+     * @param boxes the block space boxes of the model
+     * @return the shape per facing
+     */
+    private static Map<Direction, VoxelShape> createFaceHidingShapes(List<AABB> boxes) {
+        Map<Direction, VoxelShape> shapes = new EnumMap<>(Direction.class);
+        for (Direction facing : Direction.Plane.HORIZONTAL) {
+            VoxelShape shape = Shapes.empty();
+            for (AABB box : boxes) {
+                AABB clipped = clipToBlock(rotateY(box, facing.get2DDataValue()));
+                if (clipped != null) {
+                    shape = Shapes.or(shape, Shapes.create(clipped));
+                }
+            }
+            shapes.put(facing, shape.optimize());
+        }
+        return shapes;
+    }
+
+    /**
+     * Rotate a box around the block center in 90 degree steps, clockwise seen from above like blockstate y rotations
+     *
+     * @param box   the box to rotate
+     * @param steps the number of 90 degree steps
+     * @return the rotated box
+     */
+    private static AABB rotateY(AABB box, int steps) {
+        return switch (steps & 3) {
+            case 1 -> new AABB(1 - box.maxZ, box.minY, box.minX, 1 - box.minZ, box.maxY, box.maxX);
+            case 2 -> new AABB(1 - box.maxX, box.minY, 1 - box.maxZ, 1 - box.minX, box.maxY, 1 - box.minZ);
+            case 3 -> new AABB(box.minZ, box.minY, 1 - box.maxX, box.maxZ, box.maxY, 1 - box.minX);
+            default -> box;
+        };
+    }
+
+    private static AABB clipToBlock(AABB box) {
+        double minX = Math.max(box.minX, 0), minY = Math.max(box.minY, 0), minZ = Math.max(box.minZ, 0);
+        double maxX = Math.min(box.maxX, 1), maxY = Math.min(box.maxY, 1), maxZ = Math.min(box.maxZ, 1);
+        if (minX >= maxX || minY >= maxY || minZ >= maxZ) {
+            return null;
+        }
+        return new AABB(minX, minY, minZ, maxX, maxY, maxZ);
+    }
+}
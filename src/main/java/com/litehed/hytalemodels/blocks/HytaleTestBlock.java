@@ -1,6 +1,7 @@
 package com.litehed.hytalemodels.blocks;
 
 import net.minecraft.core.Direction;
+import net.minecraft.resources.Identifier;
 import net.minecraft.world.item.context.BlockPlaceContext;
 import net.minecraft.world.level.block.Block;
 import net.minecraft.world.level.block.HorizontalDirectionalBlock;
@@ -10,13 +11,13 @@ import net.minecraft.world.level.block.state.BlockState;
 import net.minecraft.world.level.block.state.StateDefinition;
 import net.minecraft.world.level.block.state.properties.EnumProperty;
 
-public class HytaleTestBlock extends Block {
+public class HytaleTestBlock extends BlockyModelBlock {
 
     public static final EnumProperty<Direction> FACING = HorizontalDirectionalBlock.FACING;
 
 
-    public HytaleTestBlock(Properties properties) {
-        super(properties.noOcclusion());
+    public HytaleTestBlock(Properties properties, Identifier modelLocation) {
+        super(properties.noOcclusion(), modelLocation);
         this.registerDefaultState(this.stateDefinition.any().setValue(FACING, Direction.NORTH));
     }
 
@@ -0,0 +1,23 @@
+package com.litehed.hytalemodels.init;
+
+import com.litehed.hytalemodels.HytaleModelLoader;
+import com.litehed.hytalemodels.blocks.BlockyAnimatedBlock;
+import com.litehed.hytalemodels.blocks.BlockyAnimatedBlockEntity;
+import net.minecraft.core.registries.BuiltInRegistries;
+import net.minecraft.core.registries.Registries;
+import net.minecraft.world.level.block.entity.BlockEntityType;
+import net.neoforged.neoforge.registries.DeferredRegister;
+
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+public class BlockEntityInit {
+
+    public static final DeferredRegister<BlockEntityType<?>> BLOCK_ENTITIES = DeferredRegister.create(Registries.BLOCK_ENTITY_TYPE, HytaleModelLoader.MODID);
+
+    // Valid for every BlockyAnimatedBlock, including ones registered by other mods
+    public static final Supplier<BlockEntityType<BlockyAnimatedBlockEntity>> BLOCKY_ANIMATED = BLOCK_ENTITIES.register("blocky_animated",
+            () -> new BlockEntityType<>(BlockyAnimatedBlockEntity::new, BuiltInRegistries.BLOCK.stream()
+                    .filter(block -> block instanceof BlockyAnimatedBlock)
+                    .collect(Collectors.toSet())));
+}
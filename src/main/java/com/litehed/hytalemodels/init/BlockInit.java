@@ -1,9 +1,10 @@
 package com.litehed.hytalemodels.init;
 
 import com.litehed.hytalemodels.HytaleModelLoader;
+import com.litehed.hytalemodels.blocks.BlockyModelBlock;
 import com.litehed.hytalemodels.blocks.HytaleTestBlock;
+import net.minecraft.resources.Identifier;
 import net.minecraft.world.level.block.Block;
-import net.minecraft.world.level.block.state.BlockBehaviour;
 import net.neoforged.neoforge.registries.DeferredBlock;
 import net.neoforged.neoforge.registries.DeferredRegister;
 
@@ -11,11 +12,15 @@ public class BlockInit {
 
     public static final DeferredRegister.Blocks BLOCKS = DeferredRegister.createBlocks(HytaleModelLoader.MODID);
 
-    public static final DeferredBlock<Block> POT = BLOCKS.registerSimpleBlock("pot", () -> BlockBehaviour.Properties.of().noOcclusion());
-    public static final DeferredBlock<Block> CRYSTAL_BIG = BLOCKS.registerSimpleBlock("crystal_big", () -> BlockBehaviour.Properties.of().noOcclusion());
-    public static final DeferredBlock<Block> BED = BLOCKS.registerSimpleBlock("bed", () -> BlockBehaviour.Properties.of().noOcclusion());
-    public static final DeferredBlock<Block> COFFIN = BLOCKS.registerSimpleBlock("coffin", () -> BlockBehaviour.Properties.of().noOcclusion());
-    public static final DeferredBlock<Block> SLOPE = BLOCKS.registerBlock("slope", HytaleTestBlock::new);
-    public static final DeferredBlock<Block> CHAIR = BLOCKS.registerSimpleBlock("chair", () -> BlockBehaviour.Properties.of().noOcclusion());
-    public static final DeferredBlock<Block> TABLE = BLOCKS.registerSimpleBlock("table", () -> BlockBehaviour.Properties.of().noOcclusion());
+    public static final DeferredBlock<Block> POT = BLOCKS.registerBlock("pot", props -> new BlockyModelBlock(props.noOcclusion(), model("pot")));
+    public static final DeferredBlock<Block> CRYSTAL_BIG = BLOCKS.registerBlock("crystal_big", props -> new BlockyModelBlock(props.noOcclusion(), model("crystal_big")));
+    public static final DeferredBlock<Block> BED = BLOCKS.registerBlock("bed", props -> new BlockyModelBlock(props.noOcclusion(), model("bed")));
+    public static final DeferredBlock<Block> COFFIN = BLOCKS.registerBlock("coffin", props -> new BlockyModelBlock(props.noOcclusion(), model("coffin")));
+    public static final DeferredBlock<Block> SLOPE = BLOCKS.registerBlock("slope", props -> new HytaleTestBlock(props, model("slope")));
+    public static final DeferredBlock<Block> CHAIR = BLOCKS.registerBlock("chair", props -> new BlockyModelBlock(props.noOcclusion(), model("chair")));
+    public static final DeferredBlock<Block> TABLE = BLOCKS.registerBlock("table", props -> new BlockyModelBlock(props.noOcclusion(), model("table")));
+
+    private static Identifier model(String name) {
+        return Identifier.fromNamespaceAndPath(HytaleModelLoader.MODID, "models/" + name + ".blockymodel");
+    }
 }
@@ -0,0 +1,23 @@
+package com.litehed.hytalemodels.mixin;
+
+import net.minecraft.client.renderer.block.model.BakedQuad;
+import net.minecraft.client.resources.model.QuadCollection;
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.gen.Invoker;
+
+import java.util.List;
+
+@Mixin(QuadCollection.class)
+public interface QuadCollectionAccessor {
+
+    /**
+     * Create a new empty collection, unlike the builder this never returns the shared {@link QuadCollection#EMPTY}
+     */
+    @Invoker("<init>")
+    static QuadCollection hytalemodelloader$create(List<BakedQuad> all, List<BakedQuad> unculled,
+                                                   List<BakedQuad> north, List<BakedQuad> south,
+                                                   List<BakedQuad> east, List<BakedQuad> west,
+                                                   List<BakedQuad> up, List<BakedQuad> down) {
+        throw new AssertionError();
+    }
+}
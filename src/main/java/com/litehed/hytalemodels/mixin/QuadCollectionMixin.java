@@ -0,0 +1,69 @@
+package com.litehed.hytalemodels.mixin;
+
+import com.litehed.hytalemodels.modelstuff.DeferredBake;
+import net.minecraft.client.renderer.block.model.BakedQuad;
+import net.minecraft.client.resources.model.QuadCollection;
+import net.minecraft.core.Direction;
+import org.jetbrains.annotations.Nullable;
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.Unique;
+import org.spongepowered.asm.mixin.injection.At;
+import org.spongepowered.asm.mixin.injection.Inject;
+import org.spongepowered.asm.mixin.injection.callback.CallbackInfoReturnable;
+
+import java.util.List;
+
+/**
+ * Lets a QuadCollection hand out the quads of a {@link DeferredBake}, keeping its own empty quads until they are baked
+ */
+@Mixin(QuadCollection.class)
+public abstract class QuadCollectionMixin implements DeferredBake.Target {
+
+    @Unique
+    private volatile DeferredBake hytalemodelloader$deferredBake;
+
+    @Override
+    public DeferredBake hytalemodelloader$getDeferredBake() {
+        return hytalemodelloader$deferredBake;
+    }
+
+    @Override
+    public void hytalemodelloader$setDeferredBake(DeferredBake bake) {
+        this.hytalemodelloader$deferredBake = bake;
+    }
+
+    @Inject(method = "getQuads", at = @At("HEAD"), cancellable = true)
+    private void hytalemodelloader$getDeferredQuads(@Nullable Direction direction, CallbackInfoReturnable<List<BakedQuad>> cir) {
+        QuadCollection quads = hytalemodelloader$resolve();
+        if (quads != null) {
+            cir.setReturnValue(quads.getQuads(direction));
+        }
+    }
+
+    @Inject(method = "getAll", at = @At("HEAD"), cancellable = true)
+    private void hytalemodelloader$getDeferredAll(CallbackInfoReturnable<List<BakedQuad>> cir) {
+        QuadCollection quads = hytalemodelloader$resolve();
+        if (quads != null) {
+            cir.setReturnValue(quads.getAll());
+        }
+    }
+
+    /**
+     * Get the collection to delegate to, a bake that resolved to this collection only tracked its first use
+     *
+     * @return the baked quads, or null if this collection holds its own quads
+     */
+    @Unique
+    private QuadCollection hytalemodelloader$resolve() {
+        DeferredBake bake = hytalemodelloader$deferredBake;
+        if (bake == null) {
+            return null;
+        }
+        QuadCollection quads = bake.get();
+        if (quads == (Object) this) {
+            hytalemodelloader$deferredBake = null;
+            return null;
+        }
+        return quads;
+    }
+}
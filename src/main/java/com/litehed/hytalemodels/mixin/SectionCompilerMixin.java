@@ -0,0 +1,28 @@
+package com.litehed.hytalemodels.mixin;
+
+import com.litehed.hytalemodels.modelstuff.DeferredBake;
+import com.llamalad7.mixinextras.sugar.Local;
+import net.minecraft.client.renderer.chunk.SectionCompiler;
+import net.minecraft.core.SectionPos;
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.injection.At;
+import org.spongepowered.asm.mixin.injection.Inject;
+import org.spongepowered.asm.mixin.injection.callback.CallbackInfoReturnable;
+
+/**
+ * Tells a {@link DeferredBake} which chunk section asked for its quads, so only that section is rebuilt
+ */
+@Mixin(SectionCompiler.class)
+public abstract class SectionCompilerMixin {
+
+    @Inject(method = "compile", at = @At("HEAD"))
+    private void hytalemodelloader$beginSection(CallbackInfoReturnable<SectionCompiler.Results> cir,
+                                                @Local(argsOnly = true) SectionPos sectionPos) {
+        DeferredBake.beginSection(sectionPos);
+    }
+
+    @Inject(method = "compile", at = @At("RETURN"))
+    private void hytalemodelloader$endSection(CallbackInfoReturnable<SectionCompiler.Results> cir) {
+        DeferredBake.endSection();
+    }
+}
@@ -0,0 +1,232 @@
+package com.litehed.hytalemodels.modelstuff;
+
+import com.litehed.hytalemodels.profiling.MemoryEstimator;
+import com.mojang.math.Transformation;
+import net.minecraft.core.Direction;
+import org.joml.Vector3f;
+import org.joml.Vector4f;
+
+/**
+ * Sprite independent quads of a geometry in model space
+ * Node transforms are already applied and UVs are kept in texture pixels, so one mesh serves
+ * every ModelState and texture the geometry is baked with, only the model transform is applied per bake
+ */
+public final class BlockyMesh {
+
+    private static final Direction[] DIRECTIONS = Direction.values();
+
+    final int quadCount;
+    final Direction[] faces;    // 1 per quad, the face of the source box
+    final int[] nodes;          // 1 per quad, the index of the source node
+    final int[] slots;          // 1 per quad, the texture slot index of the geometry
+    final float[] positions;    // 12 per quad
+    final float[] uvs;          // 8 per quad, in texture pixels
+    final float[] normals;      // 3 per quad
+
+    BlockyMesh(int quadCount) {
+        this.quadCount = quadCount;
+        this.faces = new Direction[quadCount];
+        this.nodes = new int[quadCount];
+        this.slots = new int[quadCount];
+        this.positions = new float[quadCount * 12];
+        this.uvs = new float[quadCount * 8];
+        this.normals = new float[quadCount * 3];
+    }
+
+    public int quadCount() {
+        return quadCount;
+    }
+
+    /**
+     * Estimate the heap held by this mesh
+     *
+     * @return the estimated size in bytes
+     */
+    public long estimateBytes() {
+        return MemoryEstimator.array(quadCount, MemoryEstimator.REFERENCE)
+                + MemoryEstimator.array(quadCount, 4) * 2
+                + MemoryEstimator.array(quadCount * 12, 4)
+                + MemoryEstimator.array(quadCount * 8, 4)
+                + MemoryEstimator.array(quadCount * 3, 4);
+    }
+
+    /**
+     * Build the mesh of every visible shape in a node store, all quads use the first texture slot
+     *
+     * @param store the node store
+     * @return the mesh
+     */
+    public static BlockyMesh build(BlockyNodeStore store) {
+        return build(store, new int[store.size()]);
+    }
+
+    /**
+     * Build the mesh of every visible shape in a node store
+     * Double-sided shapes get an extra reversed quad per face
+     *
+     * @param store     the node store
+     * @param nodeSlots the texture slot index of every node
+     * @return the mesh
+     */
+    public static BlockyMesh build(BlockyNodeStore store, int[] nodeSlots) {
+        return build(store, nodeSlots, true);
+    }
+
+    /**
+     * Build the mesh of every visible shape in node-local space, every box is centered on its node
+     * Quads are grouped by node in node order, used by renderers that pose nodes at runtime
+     *
+     * @param store the node store
+     * @return the local-space mesh
+     */
+    public static BlockyMesh buildLocal(BlockyNodeStore store) {
+        return build(store, new int[store.size()], false);
+    }
+
+    private static BlockyMesh build(BlockyNodeStore store, int[] nodeSlots, boolean applyNodeTransform) {
+        BlockyMesh mesh = new BlockyMesh(countQuads(store));
+
+        float[] faceVertices = new float[12];
+        float[] faceUVs = new float[8];
+        Vector4f position = new Vector4f();
+        Vector3f normal = new Vector3f();
+
+        int quad = 0;
+        for (int index = 0; index < store.size(); index++) {
+            if (!store.hasVisibleShape(index)) {
+                continue;
+            }
+
+            Transformation nodeTransform = applyNodeTransform ? store.nodeTransform(index) : null;
+            int i3 = index * 3;
+            float sizeX = store.sizes[i3], sizeY = store.sizes[i3 + 1], sizeZ = store.sizes[i3 + 2];
+            float halfX = sizeX * Math.abs(store.stretches[i3]) / 2 / TransformCalculator.POSITION_SCALE;
+            float halfY = sizeY * Math.abs(store.stretches[i3 + 1]) / 2 / TransformCalculator.POSITION_SCALE;
+            float halfZ = sizeZ * Math.abs(store.stretches[i3 + 2]) / 2 / TransformCalculator.POSITION_SCALE;
+            boolean doubleSided = store.isDoubleSided(index);
+
+            for (Direction direction : DIRECTIONS) {
+                BlockyModelGeometry.FaceTextureLayout layout = store.layout(index, direction);
+                if (layout == null) {
+                    continue;
+                }
+
+                QuadBuilder.writeFaceVertices(direction, -halfX, -halfY, -halfZ, halfX, halfY, halfZ, faceVertices);
+                QuadBuilder.writeFaceUVs(direction, layout,
+                        sizeX, sizeY, sizeZ, faceUVs);
+                for (int v = 0; v < 4 && nodeTransform != null; v++) {
+                    position.set(faceVertices[v * 3], faceVertices[v * 3 + 1], faceVertices[v * 3 + 2], 1.0f);
+                    nodeTransform.transformPosition(position);
+                    faceVertices[v * 3] = position.x();
+                    faceVertices[v * 3 + 1] = position.y();
+                    faceVertices[v * 3 + 2] = position.z();
+                }
+                normal.set(direction.getStepX(), direction.getStepY(), direction.getStepZ());
+                if (nodeTransform != null) {
+                    nodeTransform.transformNormal(normal);
+                }
+
+                mesh.setQuad(quad++, index, nodeSlots[index], direction, faceVertices, faceUVs, normal, false);
+                if (doubleSided) {
+                    mesh.setQuad(quad++, index, nodeSlots[index], direction, faceVertices, faceUVs, normal, true);
+                }
+            }
+        }
+        return mesh;
+    }
+
+    /**
+     * Get the bounds of all quads, translated into block space like baked quads
+     *
+     * @return the min x, y, z and max x, y, z corner, all zero for an empty mesh
+     */
+    float[] bounds() {
+        if (quadCount == 0) {
+            return new float[6];
+        }
+        float[] bounds = {Float.MAX_VALUE, Float.MAX_VALUE, Float.MAX_VALUE, -Float.MAX_VALUE, -Float.MAX_VALUE, -Float.MAX_VALUE};
+        for (int i = 0; i < quadCount * 12; i += 3) {
+            for (int c = 0; c < 3; c++) {
+                bounds[c] = Math.min(bounds[c], positions[i + c] + 0.5f);
+                bounds[c + 3] = Math.max(bounds[c + 3], positions[i + c] + 0.5f);
+            }
+        }
+        return bounds;
+    }
+
+    /**
+     * Copy the quads that are marked to keep into a new mesh
+     *
+     * @param keep one flag per quad
+     * @return the filtered mesh, or this mesh if every quad is kept
+     */
+    BlockyMesh retain(boolean[] keep) {
+        int kept = 0;
+        for (int quad = 0; quad < quadCount; quad++) {
+            if (keep[quad]) {
+                kept++;
+            }
+        }
+        if (kept == quadCount) {
+            return this;
+        }
+
+        BlockyMesh result = new BlockyMesh(kept);
+        int target = 0;
+        for (int quad = 0; quad < quadCount; quad++) {
+            if (keep[quad]) {
+                copyQuad(quad, result, target++);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Copy a single quad into another mesh
+     *
+     * @param quad       the quad in this mesh
+     * @param target     the mesh to copy to
+     * @param targetQuad the quad slot in the target mesh
+     */
+    void copyQuad(int quad, BlockyMesh target, int targetQuad) {
+        target.faces[targetQuad] = faces[quad];
+        target.nodes[targetQuad] = nodes[quad];
+        target.slots[targetQuad] = slots[quad];
+        System.arraycopy(positions, quad * 12, target.positions, targetQuad * 12, 12);
+        System.arraycopy(uvs, quad * 8, target.uvs, targetQuad * 8, 8);
+        System.arraycopy(normals, quad * 3, target.normals, targetQuad * 3, 3);
+    }
+
+    private static int countQuads(BlockyNodeStore store) {
+        int count = 0;
+        for (int index = 0; index < store.size(); index++) {
+            if (!store.hasVisibleShape(index)) {
+                continue;
+            }
+            int faces = 0;
+            for (Direction direction : DIRECTIONS) {
+                if (store.packedLayout(index, direction) != 0) {
+                    faces++;
+                }
+            }
+            count += store.isDoubleSided(index) ? faces * 2 : faces;
+        }
+        return count;
+    }
+
+    private void setQuad(int quad, int node, int slot, Direction face, float[] faceVertices, float[] faceUVs,
+                         Vector3f normal, boolean reversed) {
+        faces[quad] = face;
+        nodes[quad] = node;
+        slots[quad] = slot;
+        for (int n = 0; n < 4; n++) {
+            int v = reversed ? 3 - n : n;
+            System.arraycopy(faceVertices, v * 3, positions, quad * 12 + n * 3, 3);
+            System.arraycopy(faceUVs, v * 2, uvs, quad * 8 + n * 2, 2);
+        }
+        float sign = reversed ? -1.0f : 1.0f;
+        normals[quad * 3] = normal.x() * sign;
+        normals[quad * 3 + 1] = normal.y() * sign;
+        normals[quad * 3 + 2] = normal.z() * sign;
+    }
+}
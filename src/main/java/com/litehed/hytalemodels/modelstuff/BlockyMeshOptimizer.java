@@ -0,0 +1,607 @@
+package com.litehed.hytalemodels.modelstuff;
+
+import com.mojang.math.Transformation;
+import net.minecraft.world.phys.AABB;
+import org.joml.Matrix4fc;
+import org.joml.Vector3f;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Bake-time passes that shrink a {@link BlockyMesh} before it is emitted
+ * All passes work in model space, so their result is shared by every variant of a geometry
+ */
+public final class BlockyMeshOptimizer {
+
+    // Normals this close to an axis are treated as exactly axis-aligned
+    private static final float AXIS_EPSILON = 1.0e-4f;
+    // Axis-aligned vertices are snapped to 1/4096 of a block, 1/128 of a model unit
+    private static final float SNAP_GRID = 4096.0f;
+    // Tolerance when testing whether a face is covered by a box
+    private static final float COVER_EPSILON = 1.0e-4f;
+    // Minecraft pixels (1/16 block) per model unit (1/32 block)
+    private static final float PIXELS_PER_MODEL_UNIT = 16.0f / TransformCalculator.POSITION_SCALE;
+    // Tolerance in texture pixels when comparing texture mappings
+    private static final float UV_EPSILON = 1.0e-3f;
+
+    private BlockyMeshOptimizer() {
+    }
+
+    /**
+     * Snap quads whose normal is nearly axis-aligned to exact values
+     * Rotations read from a model are rarely exact, this lets the following passes compare planes exactly
+     *
+     * @param mesh the mesh to snap in place
+     */
+    public static void snapAxisAligned(BlockyMesh mesh) {
+        for (int quad = 0; quad < mesh.quadCount; quad++) {
+            int axis = nearestAxis(mesh, quad);
+            if (axis < 0) {
+                continue;
+            }
+
+            int n = quad * 3;
+            float sign = Math.signum(mesh.normals[n + axis]);
+            mesh.normals[n] = mesh.normals[n + 1] = mesh.normals[n + 2] = 0.0f;
+            mesh.normals[n + axis] = sign;
+
+            for (int i = quad * 12; i < quad * 12 + 12; i++) {
+                mesh.positions[i] = Math.round(mesh.positions[i] * SNAP_GRID) / SNAP_GRID;
+            }
+        }
+    }
+
+    /**
+     * Remove faces that can never be seen: faces fully covered by another opaque shape of the same model,
+     * such as the top of a table leg flush against the tabletop, and exact duplicates of an earlier quad
+     * Shapes are considered opaque when they are axis-aligned boxes with all six faces and are not double-sided,
+     * the caller has to make sure the texture has no transparent pixels, see {@code cull_hidden_faces}
+     *
+     * @param mesh  the snapped mesh
+     * @param store the node store the mesh was built from
+     * @return a mesh without the hidden faces, or the same mesh if nothing was removed
+     */
+    public static BlockyMesh removeHiddenFaces(BlockyMesh mesh, BlockyNodeStore store) {
+        List<Occluder> occluders = findOccluders(mesh, store);
+        boolean[] keep = new boolean[mesh.quadCount];
+        Set<QuadKey> seen = new HashSet<>();
+
+        for (int quad = 0; quad < mesh.quadCount; quad++) {
+            keep[quad] = seen.add(QuadKey.of(mesh, quad))
+                    && (store.isDoubleSided(mesh.nodes[quad]) || !isCovered(mesh, quad, occluders));
+        }
+        return mesh.retain(keep);
+    }
+
+    /**
+     * Remove every shape whose largest extent is below a threshold
+     *
+     * @param mesh      the mesh
+     * @param store     the node store the mesh was built from
+     * @param threshold the minimum extent in pixels, 1/16 of a block
+     * @param removed   receives the indices of the removed nodes
+     * @return a mesh without the small shapes, or the same mesh if nothing was removed
+     */
+    public static BlockyMesh removeSmallShapes(BlockyMesh mesh, BlockyNodeStore store, float threshold, List<Integer> removed) {
+        boolean[] keep = new boolean[mesh.quadCount];
+        for (int quad = 0; quad < mesh.quadCount; quad++) {
+            int node = mesh.nodes[quad];
+            keep[quad] = shapeExtent(store, node) >= threshold;
+            if (!keep[quad] && (removed.isEmpty() || removed.get(removed.size() - 1) != node)) {
+                removed.add(node);
+            }
+        }
+        return mesh.retain(keep);
+    }
+
+    /**
+     * Remove the smallest shapes until the mesh has at most the given number of quads
+     *
+     * @param mesh     the mesh
+     * @param store    the node store the mesh was built from
+     * @param maxQuads the quad budget
+     * @param removed  receives the indices of the removed nodes
+     * @return a mesh within the budget, or the same mesh if it already was
+     */
+    public static BlockyMesh enforceQuadBudget(BlockyMesh mesh, BlockyNodeStore store, int maxQuads, List<Integer> removed) {
+        if (mesh.quadCount <= maxQuads) {
+            return mesh;
+        }
+
+        int[] quadsPerNode = new int[store.size()];
+        for (int quad = 0; quad < mesh.quadCount; quad++) {
+            quadsPerNode[mesh.nodes[quad]]++;
+        }
+        List<Integer> bySize = new ArrayList<>();
+        for (int node = 0; node < quadsPerNode.length; node++) {
+            if (quadsPerNode[node] > 0) {
+                bySize.add(node);
+            }
+        }
+        bySize.sort(Comparator.comparingDouble(node -> shapeVolume(store, node)));
+
+        boolean[] dropNode = new boolean[store.size()];
+        int remaining = mesh.quadCount;
+        for (int i = 0; i < bySize.size() && remaining > maxQuads; i++) {
+            int node = bySize.get(i);
+            dropNode[node] = true;
+            remaining -= quadsPerNode[node];
+            removed.add(node);
+        }
+
+        boolean[] keep = new boolean[mesh.quadCount];
+        for (int quad = 0; quad < mesh.quadCount; quad++) {
+            keep[quad] = !dropNode[mesh.nodes[quad]];
+        }
+        return mesh.retain(keep);
+    }
+
+    /**
+     * Get the largest extent of a shape in pixels
+     */
+    private static float shapeExtent(BlockyNodeStore store, int node) {
+        int i3 = node * 3;
+        float extent = Math.max(store.sizes[i3] * Math.abs(store.stretches[i3]),
+                Math.max(store.sizes[i3 + 1] * Math.abs(store.stretches[i3 + 1]),
+                        store.sizes[i3 + 2] * Math.abs(store.stretches[i3 + 2])));
+        return extent * PIXELS_PER_MODEL_UNIT;
+    }
+
+    private static float shapeVolume(BlockyNodeStore store, int node) {
+        int i3 = node * 3;
+        // Flat shapes still have an area, give them a unit thickness so they sort by it
+        return Math.max(store.sizes[i3] * Math.abs(store.stretches[i3]), 1.0f)
+                * Math.max(store.sizes[i3 + 1] * Math.abs(store.stretches[i3 + 1]), 1.0f)
+                * Math.max(store.sizes[i3 + 2] * Math.abs(store.stretches[i3 + 2]), 1.0f);
+    }
+
+    /**
+     * Greedily merge adjacent coplanar quads into larger quads
+     * Two quads are merged when they use the same texture slot, face the same way on the same plane, share a full edge and map
+     * positions to texture pixels with the same affine mapping, so the merged quad samples the exact same texels
+     *
+     * @param mesh the snapped mesh
+     * @return a mesh with merged quads, or the same mesh if nothing was merged
+     */
+    public static BlockyMesh mergeCoplanarQuads(BlockyMesh mesh) {
+        Map<PlaneKey, List<MergeRect>> planes = new LinkedHashMap<>();
+        boolean[] keep = new boolean[mesh.quadCount];
+        for (int quad = 0; quad < mesh.quadCount; quad++) {
+            MergeRect rect = MergeRect.of(mesh, quad);
+            if (rect == null) {
+                keep[quad] = true;
+                continue;
+            }
+            int axis = exactAxis(mesh, quad);
+            PlaneKey key = new PlaneKey(mesh.slots[quad], axis, mesh.normals[quad * 3 + axis] > 0,
+                    Math.round(mesh.positions[quad * 12 + axis] * SNAP_GRID));
+            planes.computeIfAbsent(key, k -> new ArrayList<>()).add(rect);
+        }
+
+        List<MergeRect> merged = new ArrayList<>();
+        int mergedAway = 0;
+        for (List<MergeRect> rects : planes.values()) {
+            int before = rects.size();
+            mergePlane(rects);
+            mergedAway += before - rects.size();
+            merged.addAll(rects);
+        }
+        if (mergedAway == 0) {
+            return mesh;
+        }
+
+        // Unmerged quads keep their data, merged ones are rewritten from their template quad
+        BlockyMesh kept = mesh.retain(keep);
+        BlockyMesh result = new BlockyMesh(kept.quadCount + merged.size());
+        for (int quad = 0; quad < kept.quadCount; quad++) {
+            kept.copyQuad(quad, result, quad);
+        }
+        int target = kept.quadCount;
+        for (MergeRect rect : merged) {
+            mesh.copyQuad(rect.template, result, target);
+            rect.write(mesh, result, target);
+            target++;
+        }
+        return result;
+    }
+
+    private static void mergePlane(List<MergeRect> rects) {
+        boolean changed = true;
+        while (changed) {
+            changed = false;
+            for (int i = 0; i < rects.size(); i++) {
+                for (int j = rects.size() - 1; j > i; j--) {
+                    if (rects.get(i).tryMerge(rects.get(j))) {
+                        rects.remove(j);
+                        changed = true;
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Get the closed axis-aligned boxes of a model in block space, placed like the baked quads:
+     * the root transform is applied around the model origin, which then sits at the block center
+     * Used to derive the face hiding shapes of blocks, the same shapes that hide faces in {@link #removeHiddenFaces}
+     *
+     * @param store         the node store
+     * @param rootTransform the root transform of the model JSON
+     * @return the boxes, unclipped, or none if the transform rotates the boxes off the axes
+     */
+    public static List<AABB> opaqueBoxes(BlockyNodeStore store, Transformation rootTransform) {
+        Matrix4fc matrix = rootTransform.getMatrix();
+        if (!isAxisAligned(matrix)) {
+            return List.of();
+        }
+        BlockyMesh mesh = BlockyMesh.build(store);
+        snapAxisAligned(mesh);
+
+        List<AABB> boxes = new ArrayList<>();
+        Vector3f corner = new Vector3f();
+        for (Occluder occluder : findOccluders(mesh, store)) {
+            float[] min = {Float.MAX_VALUE, Float.MAX_VALUE, Float.MAX_VALUE};
+            float[] max = {-Float.MAX_VALUE, -Float.MAX_VALUE, -Float.MAX_VALUE};
+            for (int i = 0; i < 8; i++) {
+                corner.set((i & 1) == 0 ? occluder.min[0] : occluder.max[0],
+                        (i & 2) == 0 ? occluder.min[1] : occluder.max[1],
+                        (i & 4) == 0 ? occluder.min[2] : occluder.max[2]);
+                matrix.transformPosition(corner);
+                for (int a = 0; a < 3; a++) {
+                    min[a] = Math.min(min[a], corner.get(a));
+                    max[a] = Math.max(max[a], corner.get(a));
+                }
+            }
+            boxes.add(new AABB(min[0] + 0.5, min[1] + 0.5, min[2] + 0.5, max[0] + 0.5, max[1] + 0.5, max[2] + 0.5));
+        }
+        return boxes;
+    }
+
+    /**
+     * Check whether a transform maps every axis onto an axis, so boxes stay boxes
+     */
+    private static boolean isAxisAligned(Matrix4fc matrix) {
+        float[][] columns = {
+                {matrix.m00(), matrix.m01(), matrix.m02()},
+                {matrix.m10(), matrix.m11(), matrix.m12()},
+                {matrix.m20(), matrix.m21(), matrix.m22()}
+        };
+        for (float[] column : columns) {
+            int axes = 0;
+            for (float value : column) {
+                if (Math.abs(value) > AXIS_EPSILON) {
+                    axes++;
+                }
+            }
+            if (axes != 1) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Collect the boxes of all opaque axis-aligned shapes
+     * Quads of a node are contiguous in the mesh, so each node is a single run
+     */
+    private static List<Occluder> findOccluders(BlockyMesh mesh, BlockyNodeStore store) {
+        List<Occluder> occluders = new ArrayList<>();
+        int start = 0;
+        while (start < mesh.quadCount) {
+            int node = mesh.nodes[start];
+            int end = start;
+            while (end < mesh.quadCount && mesh.nodes[end] == node) {
+                end++;
+            }
+
+            if (end - start == BlockyNodeStore.FACES && !store.isDoubleSided(node)) {
+                Occluder occluder = boxOf(mesh, node, start, end);
+                if (occluder != null) {
+                    occluders.add(occluder);
+                }
+            }
+            start = end;
+        }
+        return occluders;
+    }
+
+    private static Occluder boxOf(BlockyMesh mesh, int node, int start, int end) {
+        float[] min = {Float.MAX_VALUE, Float.MAX_VALUE, Float.MAX_VALUE};
+        float[] max = {-Float.MAX_VALUE, -Float.MAX_VALUE, -Float.MAX_VALUE};
+        for (int quad = start; quad < end; quad++) {
+            if (exactAxis(mesh, quad) < 0) {
+                return null;
+            }
+            for (int i = 0; i < 4; i++) {
+                for (int a = 0; a < 3; a++) {
+                    float value = mesh.positions[quad * 12 + i * 3 + a];
+                    min[a] = Math.min(min[a], value);
+                    max[a] = Math.max(max[a], value);
+                }
+            }
+        }
+        for (int a = 0; a < 3; a++) {
+            // Flat planes hide nothing
+            if (max[a] - min[a] <= COVER_EPSILON) {
+                return null;
+            }
+        }
+        return new Occluder(node, min, max);
+    }
+
+    /**
+     * Check whether the front of a quad lies inside another box and the quad is fully covered by it
+     */
+    private static boolean isCovered(BlockyMesh mesh, int quad, List<Occluder> occluders) {
+        int axis = exactAxis(mesh, quad);
+        if (axis < 0) {
+            return false;
+        }
+        boolean positive = mesh.normals[quad * 3 + axis] > 0;
+        float plane = mesh.positions[quad * 12 + axis];
+
+        float[] min = new float[3];
+        float[] max = new float[3];
+        bounds(mesh, quad, min, max);
+
+        for (Occluder occluder : occluders) {
+            if (occluder.node == mesh.nodes[quad]) {
+                continue;
+            }
+            // The side the quad faces must be inside the box, a quad on the outside of the box stays visible
+            boolean inside = positive
+                    ? plane >= occluder.min[axis] - COVER_EPSILON && plane < occluder.max[axis] - COVER_EPSILON
+                    : plane > occluder.min[axis] + COVER_EPSILON && plane <= occluder.max[axis] + COVER_EPSILON;
+            if (inside && covers(occluder, min, max, axis)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean covers(Occluder occluder, float[] min, float[] max, int skipAxis) {
+        for (int a = 0; a < 3; a++) {
+            if (a != skipAxis && (min[a] < occluder.min[a] - COVER_EPSILON || max[a] > occluder.max[a] + COVER_EPSILON)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    static void bounds(BlockyMesh mesh, int quad, float[] min, float[] max) {
+        Arrays.fill(min, Float.MAX_VALUE);
+        Arrays.fill(max, -Float.MAX_VALUE);
+        for (int i = 0; i < 4; i++) {
+            for (int a = 0; a < 3; a++) {
+                float value = mesh.positions[quad * 12 + i * 3 + a];
+                min[a] = Math.min(min[a], value);
+                max[a] = Math.max(max[a], value);
+            }
+        }
+    }
+
+    /**
+     * Get the axis a nearly axis-aligned quad faces along
+     *
+     * @return the axis index, or -1 if the normal is not close to an axis
+     */
+    private static int nearestAxis(BlockyMesh mesh, int quad) {
+        for (int a = 0; a < 3; a++) {
+            if (Math.abs(mesh.normals[quad * 3 + a]) > 1.0f - AXIS_EPSILON) {
+                return a;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Get the axis of a quad that was snapped by {@link #snapAxisAligned}
+     *
+     * @return the axis index, or -1 if the quad is not axis-aligned
+     */
+    static int exactAxis(BlockyMesh mesh, int quad) {
+        for (int a = 0; a < 3; a++) {
+            if (Math.abs(mesh.normals[quad * 3 + a]) == 1.0f) {
+                return a;
+            }
+        }
+        return -1;
+    }
+
+    private record PlaneKey(int slot, int axis, boolean positive, int plane) {
+    }
+
+    /**
+     * An axis-aligned quad as a rectangle on its plane together with its texture mapping
+     * u = uP * p + uQ * q + uC and v = vP * p + vQ * q + vC, where p and q are the two in-plane axes
+     */
+    private static final class MergeRect {
+        private final int template;
+        private final int axisP;
+        private final int axisQ;
+        private float minP, maxP, minQ, maxQ;
+        private final float uP, uQ, uC, vP, vQ, vC;
+
+        private MergeRect(int template, int axisP, int axisQ, float[] bounds,
+                          float uP, float uQ, float uC, float vP, float vQ, float vC) {
+            this.template = template;
+            this.axisP = axisP;
+            this.axisQ = axisQ;
+            this.minP = bounds[0];
+            this.maxP = bounds[1];
+            this.minQ = bounds[2];
+            this.maxQ = bounds[3];
+            this.uP = uP;
+            this.uQ = uQ;
+            this.uC = uC;
+            this.vP = vP;
+            this.vQ = vQ;
+            this.vC = vC;
+        }
+
+        /**
+         * Describe a quad as a rectangle
+         *
+         * @return the rectangle, or null if the quad is not an axis-aligned rectangle with an affine texture mapping
+         */
+        static MergeRect of(BlockyMesh mesh, int quad) {
+            int axis = exactAxis(mesh, quad);
+            if (axis < 0) {
+                return null;
+            }
+            int axisP = (axis + 1) % 3;
+            int axisQ = (axis + 2) % 3;
+
+            float[] p = new float[4];
+            float[] q = new float[4];
+            for (int i = 0; i < 4; i++) {
+                p[i] = mesh.positions[quad * 12 + i * 3 + axisP];
+                q[i] = mesh.positions[quad * 12 + i * 3 + axisQ];
+            }
+            float[] bounds = {
+                    Math.min(Math.min(p[0], p[1]), Math.min(p[2], p[3])),
+                    Math.max(Math.max(p[0], p[1]), Math.max(p[2], p[3])),
+                    Math.min(Math.min(q[0], q[1]), Math.min(q[2], q[3])),
+                    Math.max(Math.max(q[0], q[1]), Math.max(q[2], q[3]))
+            };
+            for (int i = 0; i < 4; i++) {
+                boolean onP = near(p[i], bounds[0]) || near(p[i], bounds[1]);
+                boolean onQ = near(q[i], bounds[2]) || near(q[i], bounds[3]);
+                if (!onP || !onQ) {
+                    return null;
+                }
+            }
+
+            // Solve the texture mapping from the first three vertices
+            float dp1 = p[1] - p[0], dq1 = q[1] - q[0];
+            float dp2 = p[2] - p[0], dq2 = q[2] - q[0];
+            float det = dp1 * dq2 - dp2 * dq1;
+            if (Math.abs(det) < COVER_EPSILON * COVER_EPSILON) {
+                return null;
+            }
+            int t = quad * 8;
+            float du1 = mesh.uvs[t + 2] - mesh.uvs[t], dv1 = mesh.uvs[t + 3] - mesh.uvs[t + 1];
+            float du2 = mesh.uvs[t + 4] - mesh.uvs[t], dv2 = mesh.uvs[t + 5] - mesh.uvs[t + 1];
+            float uP = (du1 * dq2 - du2 * dq1) / det;
+            float uQ = (dp1 * du2 - dp2 * du1) / det;
+            float vP = (dv1 * dq2 - dv2 * dq1) / det;
+            float vQ = (dp1 * dv2 - dp2 * dv1) / det;
+            float uC = mesh.uvs[t] - uP * p[0] - uQ * q[0];
+            float vC = mesh.uvs[t + 1] - vP * p[0] - vQ * q[0];
+
+            // The fourth vertex has to follow the same mapping
+            if (Math.abs(uP * p[3] + uQ * q[3] + uC - mesh.uvs[t + 6]) > UV_EPSILON
+                    || Math.abs(vP * p[3] + vQ * q[3] + vC - mesh.uvs[t + 7]) > UV_EPSILON) {
+                return null;
+            }
+            return new MergeRect(quad, axisP, axisQ, bounds, uP, uQ, uC, vP, vQ, vC);
+        }
+
+        /**
+         * Grow this rectangle by another one if they share a full edge and a texture mapping
+         *
+         * @return true if the other rectangle was absorbed
+         */
+        boolean tryMerge(MergeRect other) {
+            if (!sameMapping(other)) {
+                return false;
+            }
+            if (near(minP, other.minP) && near(maxP, other.maxP)
+                    && (near(maxQ, other.minQ) || near(other.maxQ, minQ))) {
+                minQ = Math.min(minQ, other.minQ);
+                maxQ = Math.max(maxQ, other.maxQ);
+                return true;
+            }
+            if (near(minQ, other.minQ) && near(maxQ, other.maxQ)
+                    && (near(maxP, other.minP) || near(other.maxP, minP))) {
+                minP = Math.min(minP, other.minP);
+                maxP = Math.max(maxP, other.maxP);
+                return true;
+            }
+            return false;
+        }
+
+        private boolean sameMapping(MergeRect other) {
+            // Compare the mapping over the extent of the rectangles rather than the raw coefficients
+            float extent = Math.max(maxP - minP, maxQ - minQ) + Math.max(other.maxP - other.minP, other.maxQ - other.minQ);
+            return Math.abs(uC - other.uC + (uP - other.uP) * minP + (uQ - other.uQ) * minQ) <= UV_EPSILON
+                    && Math.abs(vC - other.vC + (vP - other.vP) * minP + (vQ - other.vQ) * minQ) <= UV_EPSILON
+                    && Math.abs(uP - other.uP) * extent <= UV_EPSILON && Math.abs(uQ - other.uQ) * extent <= UV_EPSILON
+                    && Math.abs(vP - other.vP) * extent <= UV_EPSILON && Math.abs(vQ - other.vQ) * extent <= UV_EPSILON;
+        }
+
+        /**
+         * Write the grown rectangle over a copy of its template quad, keeping the template winding
+         */
+        void write(BlockyMesh source, BlockyMesh target, int quad) {
+            float[] min = new float[3];
+            float[] max = new float[3];
+            bounds(source, template, min, max);
+
+            for (int i = 0; i < 4; i++) {
+                int sp = template * 12 + i * 3;
+                // Each template vertex sits on one corner, move it to the same corner of the grown rectangle
+                float p = near(source.positions[sp + axisP], min[axisP]) ? minP : maxP;
+                float q = near(source.positions[sp + axisQ], min[axisQ]) ? minQ : maxQ;
+
+                int tp = quad * 12 + i * 3;
+                target.positions[tp + axisP] = p;
+                target.positions[tp + axisQ] = q;
+                target.uvs[quad * 8 + i * 2] = uP * p + uQ * q + uC;
+                target.uvs[quad * 8 + i * 2 + 1] = vP * p + vQ * q + vC;
+            }
+        }
+
+        private static boolean near(float a, float b) {
+            return Math.abs(a - b) <= COVER_EPSILON;
+        }
+    }
+
+    private record Occluder(int node, float[] min, float[] max) {
+    }
+
+    /**
+     * Position of a quad independent of vertex order, quantized to the snap grid
+     */
+    private record QuadKey(int[] values) {
+
+        static QuadKey of(BlockyMesh mesh, int quad) {
+            int[] values = new int[12];
+            for (int i = 0; i < 4; i++) {
+                int p = quad * 12 + i * 3;
+                values[i * 3] = Math.round(mesh.positions[p] * SNAP_GRID);
+                values[i * 3 + 1] = Math.round(mesh.positions[p + 1] * SNAP_GRID);
+                values[i * 3 + 2] = Math.round(mesh.positions[p + 2] * SNAP_GRID);
+            }
+
+            // Sort the vertices so rotated copies of the same quad compare equal
+            int[] sorted = new int[15];
+            Integer[] order = {0, 1, 2, 3};
+            Arrays.sort(order, (a, b) -> Arrays.compare(values, a * 3, a * 3 + 3, values, b * 3, b * 3 + 3));
+            for (int i = 0; i < 4; i++) {
+                System.arraycopy(values, order[i] * 3, sorted, i * 3, 3);
+            }
+            for (int a = 0; a < 3; a++) {
+                sorted[12 + a] = Math.round(mesh.normals[quad * 3 + a] * 1024.0f);
+            }
+            return new QuadKey(sorted);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof QuadKey other && Arrays.equals(values, other.values);
+        }
+
+        @Override
+        public int hashCode() {
+            return Arrays.hashCode(values);
+        }
+    }
+}
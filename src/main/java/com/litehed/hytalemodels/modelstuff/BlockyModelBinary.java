@@ -0,0 +1,95 @@
+package com.litehed.hytalemodels.modelstuff;
+
+import net.minecraft.resources.Identifier;
+
+/**
+ * Shared constants of the compiled .blockybin format
+ * <p>
+ * Layout (big endian):
+ * <pre>
+ * header:  int magic, short version, short flags, int nodeCount, int stringCount
+ * strings: stringCount x (ushort length, UTF-8 bytes)
+ * nodes:   nodeCount x node record, parents always before their children
+ *
+ * node:    int parentIndex (-1 for roots), int idString, int nameString, int textureString (-1 for none), byte flags,
+ *          3 x fixed position, 4 x snorm16 orientation,
+ *          [shape: optional 3 x fixed offset, optional 3 x fixed stretch, optional 3 x fixed size,
+ *                  byte faceMask, one packed FaceTextureLayout int per set face bit]
+ * layout:  a packed FaceTextureLayout, or from version 4 with {@link #WIDE_LAYOUT} set the mirror and angle bits
+ *          followed by int offsetX, int offsetY for offsets beyond the packed range
+ *
+ * only with {@link #HEADER_PRECOMPUTED} (version 3):
+ * world:   nodeCount x (3 x float world position, 4 x float world orientation)
+ * bounds:  6 x float, min and max corner of every visible shape in block space
+ * </pre>
+ * Vectors are quantized to fixed point with {@link #FIXED_POINT_SCALE} steps per model unit
+ */
+public final class BlockyModelBinary {
+
+    public static final String SOURCE_EXTENSION = ".blockymodel";
+    public static final String EXTENSION = ".blockybin";
+
+    public static final int MAGIC = 0x424C4B42; // "BLKB"
+    public static final short VERSION = 4;
+    static final short MIN_VERSION = 2;
+
+    // Header flags
+    static final int HEADER_PRECOMPUTED = 1;
+
+    // Set on face layouts whose offsets follow as two full ints
+    static final int WIDE_LAYOUT = 1 << 31;
+
+    static final float FIXED_POINT_SCALE = 4096.0f;
+    static final float SNORM16_SCALE = 32767.0f;
+
+    // Node flags
+    static final int FLAG_HAS_SHAPE = 1;
+    static final int FLAG_VISIBLE = 1 << 1;
+    static final int FLAG_DOUBLE_SIDED = 1 << 2;
+    static final int FLAG_HAS_OFFSET = 1 << 3;
+    static final int FLAG_HAS_STRETCH = 1 << 4;
+    static final int FLAG_HAS_SIZE = 1 << 5;
+
+    private BlockyModelBinary() {
+    }
+
+    /**
+     * Get the location of the compiled model that belongs to a .blockymodel location
+     *
+     * @param sourceLocation the location of the .blockymodel file
+     * @return the location of the matching .blockybin file
+     */
+    public static Identifier compiledLocation(Identifier sourceLocation) {
+        return sourceLocation.withPath(path -> path.endsWith(SOURCE_EXTENSION)
+                ? path.substring(0, path.length() - SOURCE_EXTENSION.length()) + EXTENSION
+                : path + EXTENSION);
+    }
+
+    /**
+     * Get the .blockymodel location a model file belongs to, compiled locations are mapped back to their source
+     *
+     * @param location the location of a .blockymodel or .blockybin file
+     * @return the location of the .blockymodel file
+     */
+    public static Identifier sourceLocation(Identifier location) {
+        return location.getPath().endsWith(EXTENSION)
+                ? location.withPath(path -> path.substring(0, path.length() - EXTENSION.length()) + SOURCE_EXTENSION)
+                : location;
+    }
+
+    static int quantize(float value) {
+        return Math.round(value * FIXED_POINT_SCALE);
+    }
+
+    static float dequantize(int value) {
+        return value / FIXED_POINT_SCALE;
+    }
+
+    static short quantizeUnit(float value) {
+        return (short) Math.round(Math.clamp(value, -1.0f, 1.0f) * SNORM16_SCALE);
+    }
+
+    static float dequantizeUnit(short value) {
+        return value / SNORM16_SCALE;
+    }
+}
@@ -0,0 +1,172 @@
+package com.litehed.hytalemodels.modelstuff;
+
+import com.google.gson.JsonParseException;
+import net.minecraft.core.Direction;
+import org.joml.Quaternionf;
+import org.joml.Vector3f;
+import org.joml.Vector3fc;
+
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.EnumMap;
+import java.util.Map;
+
+import static com.litehed.hytalemodels.modelstuff.BlockyModelBinary.*;
+
+/**
+ * Reads the compiled .blockybin format, see {@link BlockyModelBinary}
+ * Works on any ByteBuffer, including memory-mapped files from {@link #map(Path)}
+ */
+public class BlockyModelBinaryReader {
+
+    private static final Direction[] DIRECTIONS = Direction.values();
+
+    /**
+     * Memory-map a compiled model file
+     *
+     * @param path the path of the .blockybin file
+     * @return a read-only buffer over the file contents
+     * @throws IOException if the file cannot be mapped
+     */
+    public static ByteBuffer map(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            return channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+    }
+
+    /**
+     * Decode the nodes of a compiled model, the buffer position is advanced past the model
+     *
+     * @param buffer the buffer holding the encoded model
+     * @return the store holding the decoded nodes, parents always before their children
+     * @throws JsonParseException if the data is not a supported compiled model
+     */
+    public static BlockyNodeStore parseNodes(ByteBuffer buffer) throws JsonParseException {
+        try {
+            if (buffer.getInt() != MAGIC) {
+                throw new JsonParseException("Not a compiled BlockyModel file");
+            }
+            short version = buffer.getShort();
+            if (version < MIN_VERSION || version > VERSION) {
+                throw new JsonParseException("Unsupported compiled BlockyModel version: " + version);
+            }
+            int headerFlags = buffer.getShort();
+
+            int nodeCount = buffer.getInt();
+            int stringCount = buffer.getInt();
+            if (nodeCount < 0 || stringCount < 0) {
+                throw new JsonParseException("Corrupt compiled BlockyModel header");
+            }
+
+            String[] strings = new String[stringCount];
+            for (int i = 0; i < stringCount; i++) {
+                byte[] utf8 = new byte[Short.toUnsignedInt(buffer.getShort())];
+                buffer.get(utf8);
+                strings[i] = new String(utf8, StandardCharsets.UTF_8);
+            }
+
+            BlockyNodeStore.Builder nodes = BlockyNodeStore.builder();
+            for (int i = 0; i < nodeCount; i++) {
+                int parentIndex = buffer.getInt();
+                if (parentIndex >= i) {
+                    throw new JsonParseException("Compiled BlockyModel node " + i + " references a later parent");
+                }
+                String id = strings[buffer.getInt()];
+                String name = strings[buffer.getInt()];
+                int textureString = buffer.getInt();
+                String texture = textureString < 0 ? null : strings[textureString];
+                readNode(buffer, nodes, id, name, texture, Math.max(parentIndex, -1));
+            }
+
+            if (version >= 3 && (headerFlags & HEADER_PRECOMPUTED) != 0) {
+                float[] worldPositions = new float[nodeCount * 3];
+                float[] worldOrientations = new float[nodeCount * 4];
+                for (int i = 0; i < nodeCount; i++) {
+                    for (int c = 0; c < 3; c++) {
+                        worldPositions[i * 3 + c] = buffer.getFloat();
+                    }
+                    for (int c = 0; c < 4; c++) {
+                        worldOrientations[i * 4 + c] = buffer.getFloat();
+                    }
+                }
+                float[] bounds = new float[6];
+                for (int c = 0; c < bounds.length; c++) {
+                    bounds[c] = buffer.getFloat();
+                }
+                nodes.setPrecomputed(worldPositions, worldOrientations, bounds);
+            }
+            return nodes.build();
+        } catch (BufferUnderflowException | IndexOutOfBoundsException e) {
+            throw new JsonParseException("Truncated compiled BlockyModel file", e);
+        }
+    }
+
+    private static void readNode(ByteBuffer buffer, BlockyNodeStore.Builder nodes, String id, String name,
+                                 String texture, int parent) {
+        int flags = buffer.get();
+
+        Vector3f position = readVector(buffer);
+        Quaternionf orientation = new Quaternionf(
+                dequantizeUnit(buffer.getShort()),
+                dequantizeUnit(buffer.getShort()),
+                dequantizeUnit(buffer.getShort()),
+                dequantizeUnit(buffer.getShort())
+        ).normalize();
+
+        int index = nodes.addNode(id, name, position, orientation, parent);
+        nodes.setTexture(index, texture);
+        if ((flags & FLAG_VISIBLE) != 0) {
+            nodes.setShape(index, readShape(buffer, flags));
+        } else if ((flags & FLAG_HAS_SHAPE) != 0) {
+            nodes.setShape(index, BlockyNodeStore.ShapeDefinition.invisible());
+        }
+    }
+
+    private static BlockyModelGeometry.FaceTextureLayout readLayout(ByteBuffer buffer) {
+        int bits = buffer.getInt();
+        BlockyModelGeometry.FaceTextureLayout layout = BlockyModelGeometry.FaceTextureLayout.unpack(bits);
+        if ((bits & WIDE_LAYOUT) == 0) {
+            return layout;
+        }
+        return BlockyModelGeometry.FaceTextureLayout.of(buffer.getInt(), buffer.getInt(),
+                layout.mirrorX(), layout.mirrorY(), layout.angle());
+    }
+
+    private static BlockyNodeStore.ShapeDefinition readShape(ByteBuffer buffer, int flags) {
+        Vector3fc offset = (flags & FLAG_HAS_OFFSET) != 0 ? readVector(buffer) : BlockyModelParser.ZERO;
+        Vector3fc stretch = (flags & FLAG_HAS_STRETCH) != 0 ? readVector(buffer) : BlockyModelParser.DEFAULT_STRETCH_VECTOR;
+        Vector3fc size = (flags & FLAG_HAS_SIZE) != 0 ? readVector(buffer) : BlockyModelParser.DEFAULT_SIZE_VECTOR;
+
+        int faceMask = buffer.get();
+        Map<Direction, BlockyModelGeometry.FaceTextureLayout> layoutMap = faceMask == 0
+                ? Map.of()
+                : new EnumMap<>(Direction.class);
+        for (Direction direction : DIRECTIONS) {
+            if ((faceMask & (1 << direction.ordinal())) != 0) {
+                layoutMap.put(direction, readLayout(buffer));
+            }
+        }
+
+        return new BlockyNodeStore.ShapeDefinition(
+                true,
+                (flags & FLAG_DOUBLE_SIDED) != 0,
+                offset,
+                stretch,
+                size,
+                layoutMap
+        );
+    }
+
+    private static Vector3f readVector(ByteBuffer buffer) {
+        return new Vector3f(
+                dequantize(buffer.getInt()),
+                dequantize(buffer.getInt()),
+                dequantize(buffer.getInt())
+        );
+    }
+}
@@ -0,0 +1,203 @@
+package com.litehed.hytalemodels.modelstuff;
+
+import net.minecraft.core.Direction;
+import org.joml.Quaternionf;
+import org.joml.Vector3f;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static com.litehed.hytalemodels.modelstuff.BlockyModelBinary.*;
+
+/**
+ * Writes parsed models into the compiled .blockybin format, see {@link BlockyModelBinary}
+ */
+public class BlockyModelBinaryWriter {
+
+    /**
+     * Encode the geometry into a byte array
+     *
+     * @param geometry the geometry to encode
+     * @return the encoded bytes
+     */
+    public static byte[] toBytes(BlockyModelGeometry geometry) {
+        return toBytes(geometry.getStore());
+    }
+
+    /**
+     * Encode the nodes of a model into a byte array
+     *
+     * @param store the nodes to encode
+     * @return the encoded bytes
+     */
+    public static byte[] toBytes(BlockyNodeStore store) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try {
+            write(store, bytes);
+        } catch (IOException e) {
+            throw new IllegalStateException("Could not encode BlockyModel", e);
+        }
+        return bytes.toByteArray();
+    }
+
+    /**
+     * Write the geometry to an output stream
+     *
+     * @param geometry the geometry to encode
+     * @param output   the stream to write to
+     * @throws IOException if the stream cannot be written
+     */
+    public static void write(BlockyModelGeometry geometry, OutputStream output) throws IOException {
+        write(geometry.getStore(), output);
+    }
+
+    /**
+     * Write the nodes of a model to an output stream, including the precomputed world transforms and bounds
+     *
+     * @param store  the nodes to encode
+     * @param output the stream to write to
+     * @throws IOException if the stream cannot be written
+     */
+    public static void write(BlockyNodeStore store, OutputStream output) throws IOException {
+        List<BlockyModelGeometry.BlockyNode> nodes = store.nodes();
+        DataOutputStream out = new DataOutputStream(output);
+
+        Map<String, Integer> strings = new LinkedHashMap<>();
+        for (BlockyModelGeometry.BlockyNode node : nodes) {
+            strings.putIfAbsent(node.getId(), strings.size());
+            strings.putIfAbsent(node.getName(), strings.size());
+            if (node.getTexture() != null) {
+                strings.putIfAbsent(node.getTexture(), strings.size());
+            }
+        }
+
+        // Header
+        out.writeInt(MAGIC);
+        out.writeShort(VERSION);
+        out.writeShort(HEADER_PRECOMPUTED);
+        out.writeInt(nodes.size());
+        out.writeInt(strings.size());
+
+        // String table
+        for (String string : strings.keySet()) {
+            byte[] utf8 = string.getBytes(StandardCharsets.UTF_8);
+            if (utf8.length > 0xFFFF) {
+                throw new IllegalArgumentException("String too long for BlockyModel binary: " + string);
+            }
+            out.writeShort(utf8.length);
+            out.write(utf8);
+        }
+
+        // Node table, the store already guarantees parents before children
+        for (BlockyModelGeometry.BlockyNode node : nodes) {
+            out.writeInt(store.parentIndex(node.getIndex()));
+            out.writeInt(strings.get(node.getId()));
+            out.writeInt(strings.get(node.getName()));
+            out.writeInt(node.getTexture() != null ? strings.get(node.getTexture()) : -1);
+            writeNode(out, node);
+        }
+
+        // Precomputed world transforms and bounds, kept at full precision
+        for (int i = 0; i < store.size(); i++) {
+            for (int c = 0; c < 3; c++) {
+                out.writeFloat(store.worldPositions[i * 3 + c]);
+            }
+            for (int c = 0; c < 4; c++) {
+                out.writeFloat(store.worldOrientations[i * 4 + c]);
+            }
+        }
+        for (float value : store.bounds()) {
+            out.writeFloat(value);
+        }
+
+        out.flush();
+    }
+
+    private static void writeNode(DataOutputStream out, BlockyModelGeometry.BlockyNode node) throws IOException {
+        BlockyModelGeometry.BlockyShape shape = node.getShape();
+
+        int flags = 0;
+        Vector3f offset = null, stretch = null, size = null;
+        if (shape != null) {
+            flags |= FLAG_HAS_SHAPE;
+            if (shape.isVisible()) {
+                flags |= FLAG_VISIBLE;
+                if (shape.isDoubleSided()) {
+                    flags |= FLAG_DOUBLE_SIDED;
+                }
+
+                offset = shape.getOffset();
+                stretch = shape.getStretch();
+                size = shape.getOriginalSize();
+                if (offset.x != 0 || offset.y != 0 || offset.z != 0) {
+                    flags |= FLAG_HAS_OFFSET;
+                }
+                if (stretch.x != 1 || stretch.y != 1 || stretch.z != 1) {
+                    flags |= FLAG_HAS_STRETCH;
+                }
+                if (size.x != BlockyModelParser.DEFAULT_SIZE || size.y != BlockyModelParser.DEFAULT_SIZE
+                        || size.z != BlockyModelParser.DEFAULT_SIZE) {
+                    flags |= FLAG_HAS_SIZE;
+                }
+            }
+        }
+        out.writeByte(flags);
+
+        writeVector(out, node.getPosition());
+        Quaternionf orientation = node.getOrientation();
+        out.writeShort(quantizeUnit(orientation.x));
+        out.writeShort(quantizeUnit(orientation.y));
+        out.writeShort(quantizeUnit(orientation.z));
+        out.writeShort(quantizeUnit(orientation.w));
+
+        if ((flags & FLAG_VISIBLE) == 0) {
+            return;
+        }
+        if ((flags & FLAG_HAS_OFFSET) != 0) {
+            writeVector(out, offset);
+        }
+        if ((flags & FLAG_HAS_STRETCH) != 0) {
+            writeVector(out, stretch);
+        }
+        if ((flags & FLAG_HAS_SIZE) != 0) {
+            writeVector(out, size);
+        }
+
+        int faceMask = 0;
+        for (Direction direction : Direction.values()) {
+            if (shape.hasTextureLayout(direction)) {
+                faceMask |= 1 << direction.ordinal();
+            }
+        }
+        out.writeByte(faceMask);
+        for (Direction direction : Direction.values()) {
+            if (shape.hasTextureLayout(direction)) {
+                writeLayout(out, shape.getTextureLayout(direction));
+            }
+        }
+    }
+
+    private static void writeLayout(DataOutputStream out, BlockyModelGeometry.FaceTextureLayout layout) throws IOException {
+        if (layout.isPackable()) {
+            out.writeInt(layout.pack());
+            return;
+        }
+        BlockyModelGeometry.FaceTextureLayout flags = BlockyModelGeometry.FaceTextureLayout.of(0, 0,
+                layout.mirrorX(), layout.mirrorY(), layout.angle());
+        out.writeInt(flags.pack() | WIDE_LAYOUT);
+        out.writeInt(layout.offsetX());
+        out.writeInt(layout.offsetY());
+    }
+
+    private static void writeVector(DataOutputStream out, Vector3f vector) throws IOException {
+        out.writeInt(quantize(vector.x));
+        out.writeInt(quantize(vector.y));
+        out.writeInt(quantize(vector.z));
+    }
+}
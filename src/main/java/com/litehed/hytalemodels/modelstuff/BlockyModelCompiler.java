@@ -0,0 +1,89 @@
+package com.litehed.hytalemodels.modelstuff;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Build-time compiler that turns every .blockymodel below a resource directory into a .blockybin next to it
+ * Models are validated with {@link BlockyModelParser}, so a model that would fail to load in game fails the build instead
+ * <p>
+ * Usage: {@code BlockyModelCompiler <output directory> <resource directory>...}
+ */
+public class BlockyModelCompiler {
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 1) {
+            System.err.println("Usage: BlockyModelCompiler <output directory> <resource directory>...");
+            System.exit(2);
+        }
+
+        Path output = Paths.get(args[0]);
+        List<String> errors = new ArrayList<>();
+        int compiled = 0;
+        for (int i = 1; i < args.length; i++) {
+            Path root = Paths.get(args[i]);
+            if (!Files.isDirectory(root)) {
+                continue;
+            }
+            try (Stream<Path> files = Files.walk(root)) {
+                for (Path source : files.filter(BlockyModelCompiler::isSourceModel).toList()) {
+                    String error = compile(source, output.resolve(compiledPath(root.relativize(source))));
+                    if (error != null) {
+                        errors.add(root.relativize(source) + ": " + error);
+                    } else {
+                        compiled++;
+                    }
+                }
+            }
+        }
+
+        if (!errors.isEmpty()) {
+            errors.forEach(System.err::println);
+            System.err.println(errors.size() + " BlockyModel file(s) failed validation");
+            System.exit(1);
+        }
+        System.out.println("Compiled " + compiled + " BlockyModel file(s)");
+    }
+
+    /**
+     * Validate and compile a single model
+     *
+     * @param source the .blockymodel file
+     * @param target the .blockybin file to write
+     * @return the validation error, or null if the model was compiled
+     * @throws IOException if a file cannot be read or written
+     */
+    static String compile(Path source, Path target) throws IOException {
+        BlockyNodeStore store;
+        try (InputStream stream = Files.newInputStream(source);
+             BlockyModelTokenizer tokenizer = new BlockyModelTokenizer(stream)) {
+            store = BlockyModelParser.parseNodes(tokenizer.getRoot());
+        } catch (RuntimeException e) {
+            return e.getMessage() != null ? e.getMessage() : e.toString();
+        }
+
+        Files.createDirectories(target.getParent());
+        try (OutputStream out = Files.newOutputStream(target)) {
+            BlockyModelBinaryWriter.write(store, out);
+        }
+        return null;
+    }
+
+    private static boolean isSourceModel(Path path) {
+        return Files.isRegularFile(path) && path.getFileName().toString().endsWith(BlockyModelBinary.SOURCE_EXTENSION);
+    }
+
+    private static Path compiledPath(Path relative) {
+        String name = relative.getFileName().toString();
+        String compiledName = name.substring(0, name.length() - BlockyModelBinary.SOURCE_EXTENSION.length())
+                + BlockyModelBinary.EXTENSION;
+        return relative.resolveSibling(compiledName);
+    }
+}
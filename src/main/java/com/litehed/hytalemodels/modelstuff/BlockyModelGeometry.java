@@ -1,7 +1,15 @@
 package com.litehed.hytalemodels.modelstuff;
 
-import com.google.common.collect.Lists;
+import com.google.common.collect.Interner;
+import com.google.common.collect.Interners;
+import com.google.gson.JsonObject;
+import com.litehed.hytalemodels.Config;
+import com.litehed.hytalemodels.HytaleModelLoader;
+import com.litehed.hytalemodels.profiling.BlockyModelEvents;
+import com.litehed.hytalemodels.profiling.BlockyModelStats;
+import com.litehed.hytalemodels.profiling.ReloadTrace;
 import com.mojang.math.Transformation;
+import net.minecraft.client.renderer.Sheets;
 import net.minecraft.client.renderer.block.model.BakedQuad;
 import net.minecraft.client.renderer.block.model.TextureSlots;
 import net.minecraft.client.renderer.texture.TextureAtlasSprite;
@@ -12,32 +20,101 @@ import net.minecraft.client.resources.model.QuadCollection;
 import net.minecraft.core.Direction;
 import net.minecraft.resources.Identifier;
 import net.minecraft.util.context.ContextMap;
+import net.neoforged.neoforge.client.RenderTypeGroup;
 import net.neoforged.neoforge.client.model.ExtendedUnbakedGeometry;
 import net.neoforged.neoforge.client.model.NeoForgeModelProperties;
-import org.apache.commons.lang3.tuple.Pair;
 import org.joml.Quaternionf;
 import org.joml.Vector3f;
 
-import java.util.Collections;
-import java.util.EnumMap;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
 
 import static com.litehed.hytalemodels.modelstuff.QuadBuilder.DEBUG_BORDERS;
 
 public class BlockyModelGeometry implements ExtendedUnbakedGeometry {
 
-    private final List<BlockyNode> nodes;
-    private final Identifier modelLocation;
+    private static final Direction[] DIRECTIONS = Direction.values();
+    // Slot used by nodes that neither declare nor inherit one
+    private static final String DEFAULT_TEXTURE_SLOT = "texture";
+
+    private final BlockyNodeStore store;
+    private final Settings settings;
+    // Distinct texture slots of this model, the default slot only if some node falls back to it
+    private final String[] textureSlotNames;
+    // Index into textureSlotNames per node
+    private final int[] nodeSlots;
+    private final Map<BakeKey, CachedBake> bakeCache = new ConcurrentHashMap<>();
+    // Shared with the geometries of other locations whose file has the same content and settings
+    private final SharedMesh sharedMesh;
+    // Reload generation the geometry was last loaded in, stamped on new bakes
+    private volatile int generation;
 
     public BlockyModelGeometry(Settings settings) {
-        this.nodes = Lists.newArrayList();
-        this.modelLocation = settings.modelLocation();
+        this(BlockyNodeStore.builder().build(), settings);
     }
 
-    public BlockyModelGeometry(List<BlockyNode> nodes, Identifier modelLocation) {
-        this.nodes = nodes;
-        this.modelLocation = modelLocation;
+    public BlockyModelGeometry(BlockyNodeStore store, Settings settings) {
+        this.store = store;
+        this.settings = settings;
+        this.nodeSlots = new int[store.size()];
+        this.textureSlotNames = resolveNodeSlots(store, settings.nodeTextures(), nodeSlots);
+        this.sharedMesh = new SharedMesh();
+    }
+
+    /**
+     * Create the geometry of another location whose file has the same content and settings
+     * Nodes and mesh are shared, bakes, usage tracking and recorded events belong to the new location
+     *
+     * @param source   the geometry to share nodes and mesh with
+     * @param settings the settings of the new location
+     */
+    BlockyModelGeometry(BlockyModelGeometry source, Settings settings) {
+        this.store = source.store;
+        this.settings = settings;
+        this.nodeSlots = source.nodeSlots;
+        this.textureSlotNames = source.textureSlotNames;
+        this.sharedMesh = source.sharedMesh;
+    }
+
+    /**
+     * Assigns a texture slot to every node
+     * A slot mapped to the node name in the model JSON wins over one declared in the .blockymodel,
+     * nodes without either inherit the slot of their parent and root nodes use the default slot
+     *
+     * @param store        the node store
+     * @param nodeTextures the texture slot per node name from the model JSON
+     * @param nodeSlots    receives the slot index of every node
+     * @return the distinct slot names in order of first use, the default slot only if some node uses it
+     */
+    public static String[] resolveNodeSlots(BlockyNodeStore store, Map<String, String> nodeTextures, int[] nodeSlots) {
+        List<String> slotNames = new ArrayList<>();
+
+        for (int index = 0; index < store.size(); index++) {
+            String slot = nodeTextures.get(store.names[index]);
+            if (slot == null) {
+                slot = store.texture(index);
+            }
+
+            if (slot == null) {
+                int parent = store.parentIndex(index);
+                if (parent >= 0) {
+                    nodeSlots[index] = nodeSlots[parent];
+                    continue;
+                }
+                slot = DEFAULT_TEXTURE_SLOT;
+            }
+            int slotIndex = slotNames.indexOf(slot);
+            if (slotIndex < 0) {
+                slotIndex = slotNames.size();
+                slotNames.add(slot);
+            }
+            nodeSlots[index] = slotIndex;
+        }
+        return slotNames.toArray(String[]::new);
     }
 
     /**
@@ -48,13 +125,232 @@ public class BlockyModelGeometry implements ExtendedUnbakedGeometry {
      * @return a new BlockyModelGeometry instance
      */
     public static BlockyModelGeometry parse(BlockyModelTokenizer tokenizer, Settings settings) {
-        List<BlockyNode> nodes = BlockyModelParser.parseNodes(tokenizer.getRoot());
-        return new BlockyModelGeometry(nodes, settings.modelLocation());
+        return new BlockyModelGeometry(parseNodes(tokenizer, settings.modelLocation()), settings);
+    }
+
+    /**
+     * Parses the nodes of a .blockymodel file with the configured parser
+     *
+     * @param tokenizer the tokenizer to use for parsing
+     * @return the parsed node store
+     */
+    public static BlockyNodeStore parseNodes(BlockyModelTokenizer tokenizer) {
+        return parseNodes(tokenizer, null);
+    }
+
+    /**
+     * Parses the nodes of a .blockymodel file with the configured parser, recording tokenize and parse events
+     *
+     * @param tokenizer the tokenizer to use for parsing
+     * @param location  the location of the model for the recorded events, may be null
+     * @return the parsed node store
+     */
+    public static BlockyNodeStore parseNodes(BlockyModelTokenizer tokenizer, Identifier location) {
+        String name = location != null ? location.toString() : null;
+        boolean streaming = Config.STREAMING_PARSER.getAsBoolean();
+
+        JsonObject root = null;
+        if (!streaming) {
+            BlockyModelEvents.Tokenize tokenize = new BlockyModelEvents.Tokenize();
+            long traceStart = ReloadTrace.start();
+            long start = System.nanoTime();
+            tokenize.begin();
+            root = tokenizer.getRoot();
+            tokenize.end();
+            ReloadTrace.end("tokenize", name, traceStart);
+            BlockyModelStats.TOKENIZE_COUNT.increment();
+            BlockyModelStats.TOKENIZE_NANOS.add(System.nanoTime() - start);
+            if (tokenize.shouldCommit()) {
+                tokenize.location = name;
+                tokenize.commit();
+            }
+        }
+
+        BlockyModelEvents.Parse parse = new BlockyModelEvents.Parse();
+        long traceStart = ReloadTrace.start();
+        long start = System.nanoTime();
+        parse.begin();
+        BlockyNodeStore store = streaming
+                ? BlockyModelStreamParser.parseNodes(tokenizer.getReader())
+                : BlockyModelParser.parseNodes(root);
+        parse.end();
+        ReloadTrace.end("parse", name, traceStart);
+        recordParse(parse, name, store, false, streaming, System.nanoTime() - start);
+        return store;
+    }
+
+    /**
+     * Count a finished parse and commit its event
+     *
+     * @param event     the ended parse event
+     * @param location  the model location, may be null
+     * @param store     the parsed nodes
+     * @param compiled  whether the model was read from a .blockybin
+     * @param streaming whether the streaming parser was used
+     * @param nanos     the parse duration
+     */
+    static void recordParse(BlockyModelEvents.Parse event, String location, BlockyNodeStore store,
+                            boolean compiled, boolean streaming, long nanos) {
+        BlockyModelStats.PARSE_COUNT.increment();
+        BlockyModelStats.PARSE_NANOS.add(nanos);
+        BlockyModelStats.PARSED_NODES.add(store.size());
+        if (event.shouldCommit()) {
+            event.location = location;
+            event.nodeCount = store.size();
+            event.compiled = compiled;
+            event.streaming = streaming;
+            event.commit();
+        }
+    }
+
+    /**
+     * Reads a BlockyModelGeometry from a compiled .blockybin buffer
+     *
+     * @param buffer   the buffer holding the compiled model
+     * @param settings the settings to use for parsing
+     * @return a new BlockyModelGeometry instance
+     */
+    public static BlockyModelGeometry parseCompiled(ByteBuffer buffer, Settings settings) {
+        BlockyNodeStore store = BlockyModelBinaryReader.parseNodes(buffer);
+        return new BlockyModelGeometry(store, settings);
+    }
+
+    /**
+     * Get the mesh if it was already built, without building it
+     *
+     * @return the mesh, or null if the geometry was never baked
+     */
+    public BlockyMesh getBuiltMesh() {
+        return sharedMesh.mesh;
+    }
+
+    /**
+     * Count the quads held by the bake cache, every cached texture and transform combination counts separately
+     * Deferred bakes that were never rendered hold no quads and are not baked by this
+     *
+     * @return the number of cached baked quads
+     */
+    public int getBakedQuadCount() {
+        int quads = 0;
+        for (CachedBake bake : bakeCache.values()) {
+            if (!DeferredBake.isPending(bake.quads())) {
+                quads += bake.quads().getAll().size();
+            }
+        }
+        return quads;
+    }
+
+    /**
+     * Get all nodes as views over the node store, parents before children
+     *
+     * @return an unmodifiable list of node views
+     */
+    public List<BlockyNode> getNodes() {
+        return store.nodes();
+    }
+
+    public BlockyNodeStore getStore() {
+        return store;
+    }
+
+    public Identifier getModelLocation() {
+        return settings.modelLocation();
+    }
+
+    public Settings getSettings() {
+        return settings;
+    }
+
+
+    /**
+     * Get the sprite independent mesh of this geometry, built on first use
+     *
+     * @return the mesh
+     */
+    public BlockyMesh getMesh() {
+        BlockyMesh result = sharedMesh.mesh;
+        if (result == null) {
+            long waitStart = ReloadTrace.start();
+            synchronized (sharedMesh) {
+                ReloadTrace.end("meshLockWait", settings.modelLocation(), waitStart);
+                result = sharedMesh.mesh;
+                if (result == null) {
+                    long buildStart = ReloadTrace.start();
+                    sharedMesh.mesh = result = buildMesh();
+                    ReloadTrace.end("buildMesh", settings.modelLocation(), buildStart);
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Builds the mesh, removes hidden faces and applies the detail and merge options enabled for the model
+     *
+     * @return the optimized mesh
+     */
+    private BlockyMesh buildMesh() {
+        BlockyMesh built = BlockyMesh.build(store, nodeSlots);
+        BlockyMeshOptimizer.snapAxisAligned(built);
+        // Only the model knows whether its texture is opaque, culling behind a cutout shape would open holes
+        BlockyMesh visible = settings.cullHiddenFaces() ? BlockyMeshOptimizer.removeHiddenFaces(built, store) : built;
+
+        BlockyMesh detailed = visible;
+        if (settings.detailThreshold() > 0) {
+            List<Integer> removed = new ArrayList<>();
+            detailed = BlockyMeshOptimizer.removeSmallShapes(detailed, store, settings.detailThreshold(), removed);
+            logRemovedShapes(removed, "smaller than the detail threshold of " + settings.detailThreshold() + " pixels");
+        }
+        if (settings.maxQuads() > 0) {
+            List<Integer> removed = new ArrayList<>();
+            detailed = BlockyMeshOptimizer.enforceQuadBudget(detailed, store, settings.maxQuads(), removed);
+            logRemovedShapes(removed, "to fit the budget of " + settings.maxQuads() + " quads");
+        }
+
+        BlockyMesh result = settings.mergeQuads() ? BlockyMeshOptimizer.mergeCoplanarQuads(detailed) : detailed;
+
+        HytaleModelLoader.LOGGER.debug("[BlockyModelGeometry] Built mesh for {}: {} quads, {} hidden faces removed, {} detail quads removed, {} merged away",
+                settings.modelLocation(), result.quadCount(), built.quadCount() - visible.quadCount(),
+                visible.quadCount() - detailed.quadCount(), detailed.quadCount() - result.quadCount());
+        return result;
+    }
+
+    private void logRemovedShapes(List<Integer> removed, String reason) {
+        if (removed.isEmpty()) {
+            return;
+        }
+        List<String> names = new ArrayList<>(removed.size());
+        for (int index : removed) {
+            names.add(store.names[index]);
+        }
+        HytaleModelLoader.LOGGER.info("[BlockyModelGeometry] Removed {} shapes from {} {}: {}",
+                removed.size(), settings.modelLocation(), reason, names);
     }
 
+    /**
+     * Set the reload generation this geometry is loaded in, bakes made from now on belong to it
+     *
+     * @param generation the reload generation
+     */
+    void setGeneration(int generation) {
+        this.generation = generation;
+    }
+
+    /**
+     * Drop cached bake results of earlier reloads, baked quads hold atlas sprites that do not survive a reload
+     *
+     * @param generation the generation of the finished reload
+     */
+    void retainBakes(int generation) {
+        bakeCache.values().removeIf(bake -> bake.generation() < generation);
+    }
 
     /**
      * Bakes the model into a QuadCollection for rendering
+     * Results are cached per sprite set and model transform, so blockstate variants and item models
+     * that resolve to the same request share one QuadCollection
+     * Every texture slot of the model is resolved exactly once per bake
+     * In lazy mode, models that were not rendered in the previous session return a placeholder that bakes on first use
      *
      * @param textureSlots   the texture slots for this model
      * @param modelBaker     the model baker instance
@@ -65,247 +361,359 @@ public class BlockyModelGeometry implements ExtendedUnbakedGeometry {
      */
     @Override
     public QuadCollection bake(TextureSlots textureSlots, ModelBaker modelBaker, ModelState modelState, ModelDebugName modelDebugName, ContextMap contextMap) {
-        QuadCollection.Builder builder = new QuadCollection.Builder();
         Transformation rootTransform = contextMap.getOrDefault(
                 NeoForgeModelProperties.TRANSFORM,
                 Transformation.identity()
         );
 
-        Transformation finalTransform = rootTransform.isIdentity()
+        Transformation modelTransform = rootTransform.isIdentity()
                 ? modelState.transformation()
                 : modelState.transformation().compose(rootTransform);
 
-        for (BlockyNode node : nodes) {
-            if (node.hasShape()) {
-                bakeNode(builder, node, textureSlots, modelBaker, finalTransform, modelDebugName);
+        TextureAtlasSprite[] sprites = new TextureAtlasSprite[textureSlotNames.length];
+        for (int slot = 0; slot < sprites.length; slot++) {
+            sprites[slot] = modelBaker.sprites().resolveSlot(textureSlots, textureSlotNames[slot], modelDebugName);
+        }
+        RenderTypeGroup renderTypes = contextMap.getOrDefault(NeoForgeModelProperties.RENDER_TYPE, RenderTypeGroup.EMPTY);
+
+        BlockyModelEvents.Bake event = new BlockyModelEvents.Bake();
+        long traceStart = ReloadTrace.start();
+        long start = System.nanoTime();
+        event.begin();
+
+        BakeKey key = new BakeKey(List.of(sprites), modelTransform, renderTypes);
+        CachedBake cachedBake = bakeCache.get(key);
+        boolean cached = cachedBake != null;
+        boolean deferred = false;
+        if (!cached) {
+            Identifier location = settings.modelLocation();
+            deferred = BlockyModelUsage.shouldDefer(location);
+            QuadCollection quads = deferred
+                    ? DeferredBake.defer(location, generation, () -> bakeDeferred(sprites, modelTransform))
+                    : DeferredBake.track(location, generation, bakeMesh(getMesh(), sprites, modelTransform));
+            cachedBake = new CachedBake(quads, generation, sprites, rootTransform, renderTypes);
+            CachedBake existing = bakeCache.putIfAbsent(key, cachedBake);
+            if (existing != null) {
+                cachedBake = existing;
             }
         }
+        BlockyModelLoader.INSTANCE.recordSkin(cachedBake.quads(), cachedBake);
 
-        return builder.build();
+        event.end();
+        recordBake(event, cached, deferred, System.nanoTime() - start);
+        ReloadTrace.end(cached ? "bakeCached" : "bake", settings.modelLocation(), traceStart);
+        return cachedBake.quads();
     }
 
     /**
-     * Bakes a single BlockyNode into the QuadCollection builder
+     * Count a finished bake and commit its event
      *
-     * @param builder        the QuadCollection.Builder to add quads to
-     * @param node           the BlockyNode to bake
-     * @param textureSlots   the texture slots for this model
-     * @param modelBaker     the model baker instance
+     * @param event    the ended bake event
+     * @param cached   whether the quads came from the bake cache
+     * @param deferred whether a placeholder was returned instead of quads
+     * @param nanos    the bake duration
+     */
+    private void recordBake(BlockyModelEvents.Bake event, boolean cached, boolean deferred, long nanos) {
+        BlockyMesh built = sharedMesh.mesh;
+        int quadCount = built != null ? built.quadCount : 0;
+        BlockyModelStats.BAKE_COUNT.increment();
+        BlockyModelStats.BAKE_NANOS.add(nanos);
+        if (cached) {
+            BlockyModelStats.BAKE_CACHE_HITS.increment();
+        } else if (!deferred) {
+            BlockyModelStats.BAKED_QUADS.add(quadCount);
+        }
+        if (event.shouldCommit()) {
+            event.location = settings.modelLocation().toString();
+            event.nodeCount = store.size();
+            event.quadCount = quadCount;
+            event.cached = cached;
+            event.deferred = deferred;
+            event.commit();
+        }
+    }
+
+    /**
+     * Run a deferred bake, building the mesh first if no other bake of this geometry has
+     *
+     * @param sprites        the resolved sprite per texture slot
+     * @param modelTransform the model transformation
+     * @return the baked quads
+     */
+    private QuadCollection bakeDeferred(TextureAtlasSprite[] sprites, Transformation modelTransform) {
+        BlockyMesh built = getMesh();
+        BlockyModelStats.BAKED_QUADS.add(built.quadCount);
+        return bakeMesh(built, sprites, modelTransform);
+    }
+
+    /**
+     * Emits the local-space mesh with the model transform applied
+     *
+     * @param mesh           the mesh of this geometry
+     * @param sprites        the resolved sprite of every texture slot
      * @param modelTransform the combined transformation for this model
-     * @param modelDebugName the debug name for this model
+     * @return the baked QuadCollection
      */
-    private void bakeNode(QuadCollection.Builder builder, BlockyNode node,
-                          TextureSlots textureSlots, ModelBaker modelBaker,
-                          Transformation modelTransform, ModelDebugName modelDebugName) {
-
-        BlockyShape shape = node.getShape();
-        TextureAtlasSprite sprite = modelBaker.sprites()
-                .resolveSlot(textureSlots, "texture", modelDebugName);
-
-        Vector3f worldPos = TransformCalculator.calculateWorldPosition(node);
-        Quaternionf worldRot = TransformCalculator.calculateWorldOrientation(node);
-        Transformation nodeTransform = TransformCalculator.createNodeTransform(
-                worldPos, shape.getOffset(), worldRot
-        );
+    private QuadCollection bakeMesh(BlockyMesh mesh, TextureAtlasSprite[] sprites, Transformation modelTransform) {
+        QuadCollection.Builder builder = new QuadCollection.Builder();
 
         // Translate after rotation
         Transformation centerTranslate = new Transformation(
                 new Vector3f(0.5f, 0.5f, 0.5f), null, null, null
         );
-
-        Transformation finalTransform;
-        if (modelTransform.isIdentity()) {
-            finalTransform = centerTranslate.compose(nodeTransform);
-        } else {
-            finalTransform = centerTranslate.compose(modelTransform).compose(nodeTransform);
+        Transformation finalTransform = modelTransform.isIdentity()
+                ? centerTranslate
+                : centerTranslate.compose(modelTransform);
+
+        for (int quad = 0; quad < mesh.quadCount; quad++) {
+            QuadBuilder.addQuad(builder, mesh.positions, mesh.uvs, quad,
+                    mesh.normals[quad * 3], mesh.normals[quad * 3 + 1], mesh.normals[quad * 3 + 2],
+                    sprites[mesh.slots[quad]], finalTransform);
         }
 
-        // Bounds
-        Vector3f halfSizes = TransformCalculator.calculateHalfSizes(shape.getSize());
-        Vector3f min = new Vector3f(-halfSizes.x, -halfSizes.y, -halfSizes.z);
-        Vector3f max = new Vector3f(halfSizes.x, halfSizes.y, halfSizes.z);
+        if (DEBUG_BORDERS) {
+            addBorderQuads(builder, sprites[0], finalTransform);
+        }
+        return builder.build();
+    }
 
-        // Generate quads for each face
-        for (Direction direction : Direction.values()) {
-            if (!shape.hasTextureLayout(direction)) {
+    /**
+     * Adds debug border quads around every visible face
+     *
+     * @param builder        the QuadCollection.Builder to add quads to
+     * @param sprite         the sprite for the border quads
+     * @param modelTransform the model transformation including the center translation
+     */
+    private void addBorderQuads(QuadCollection.Builder builder, TextureAtlasSprite sprite, Transformation modelTransform) {
+        for (int index = 0; index < store.size(); index++) {
+            if (!store.hasVisibleShape(index)) {
                 continue;
             }
+            Transformation finalTransform = modelTransform.compose(store.nodeTransform(index));
+            Vector3f halfSizes = TransformCalculator.calculateHalfSizes(new BlockyShape(store, index).getSize());
+            Vector3f min = new Vector3f(halfSizes).negate();
 
-            FaceTextureLayout texLayout = shape.getTextureLayout(direction);
-            Pair<BakedQuad, Direction> quad = QuadBuilder.createQuad(
-                    direction, min, max, sprite, texLayout, shape.getOriginalSize(), finalTransform
-            );
-
-            addQuadToBuilder(builder, quad);
-
-            // Debug quads
-            if (DEBUG_BORDERS) {
-                List<BakedQuad> borderQuads = QuadBuilder.createBorderQuads(
-                        direction, min, max, sprite, finalTransform
-                );
-                for (BakedQuad borderQuad : borderQuads) {
+            for (Direction direction : DIRECTIONS) {
+                if (store.packedLayout(index, direction) == 0) {
+                    continue;
+                }
+                for (BakedQuad borderQuad : QuadBuilder.createBorderQuads(direction, min, halfSizes, sprite, finalTransform)) {
                     builder.addUnculledFace(borderQuad);
                 }
             }
-
-            // Backface if double-sided
-            if (shape.isDoubleSided()) {
-                Pair<BakedQuad, Direction> backQuad = QuadBuilder.createReversedQuad(
-                        direction, min, max, sprite, texLayout, shape.getOriginalSize(), finalTransform);
-                builder.addUnculledFace(backQuad.getLeft());
-            }
         }
     }
 
     /**
-     * Adds a quad to the QuadCollection builder, handling culling
+     * Per-model options read from the model JSON
      *
-     * @param builder the QuadCollection.Builder to add to
-     * @param quad    the quad and its culling direction
+     * @param modelLocation   the location of the .blockymodel file
+     * @param mergeQuads      whether adjacent coplanar quads are merged at bake time
+     * @param cullHiddenFaces whether faces covered by another shape of the model are removed, only valid for opaque textures
+     * @param detailThreshold shapes whose largest extent in pixels is below this are dropped, 0 to keep all
+     * @param maxQuads        the maximum number of quads, smallest shapes are dropped first, 0 for no limit
+     * @param nodeTextures    texture slot per node name, overriding the slots declared in the .blockymodel
      */
-    private void addQuadToBuilder(QuadCollection.Builder builder, Pair<BakedQuad, Direction> quad) {
-        if (quad.getRight() == null) {
-            builder.addUnculledFace(quad.getLeft());
-        } else {
-            builder.addCulledFace(quad.getRight(), quad.getLeft());
+    public record Settings(Identifier modelLocation, boolean mergeQuads, boolean cullHiddenFaces, float detailThreshold,
+                           int maxQuads, Map<String, String> nodeTextures) {
+        public Settings(Identifier modelLocation) {
+            this(modelLocation, false, false, 0, 0, Map.of());
         }
-    }
 
-    public record Settings(Identifier modelLocation) {
         public Identifier modelLocation() {
             return this.modelLocation;
         }
     }
 
+    /**
+     * Everything a bake result depends on besides the geometry itself
+     * The render types do not change the quads, but model JSONs that differ in them need their own skin
+     */
+    private record BakeKey(List<TextureAtlasSprite> sprites, Transformation modelTransform, RenderTypeGroup renderTypes) {
+    }
+
+    /**
+     * A bake result, also the source of its skin so block entity renderers can pose the nodes the way the
+     * model JSON dresses them
+     * The skin is only built when a renderer first asks for it
+     */
+    private final class CachedBake implements Supplier<BlockyModelSkin> {
+        private final QuadCollection quads;
+        private final int generation;
+        private final TextureAtlasSprite[] sprites;
+        private final Transformation rootTransform;
+        private final RenderTypeGroup renderTypes;
+        private volatile BlockyModelSkin skin;
+
+        CachedBake(QuadCollection quads, int generation, TextureAtlasSprite[] sprites,
+                   Transformation rootTransform, RenderTypeGroup renderTypes) {
+            this.quads = quads;
+            this.generation = generation;
+            this.sprites = sprites;
+            this.rootTransform = rootTransform;
+            this.renderTypes = renderTypes;
+        }
+
+        QuadCollection quads() {
+            return quads;
+        }
+
+        int generation() {
+            return generation;
+        }
+
+        @Override
+        public BlockyModelSkin get() {
+            BlockyModelSkin result = skin;
+            if (result == null) {
+                TextureAtlasSprite[] nodeSprites = new TextureAtlasSprite[nodeSlots.length];
+                for (int index = 0; index < nodeSlots.length; index++) {
+                    nodeSprites[index] = sprites[nodeSlots[index]];
+                }
+                skin = result = new BlockyModelSkin(nodeSprites, rootTransform,
+                        renderTypes.isEmpty() ? Sheets.cutoutBlockSheet() : renderTypes.entity());
+            }
+            return result;
+        }
+    }
+
+    /**
+     * The sprite independent mesh, built once for every location that shares it, also the lock for building it
+     */
+    private static final class SharedMesh {
+        volatile BlockyMesh mesh;
+    }
+
+    private static Vector3f vec3(float[] array, int index) {
+        return new Vector3f(array[index * 3], array[index * 3 + 1], array[index * 3 + 2]);
+    }
+
+    /**
+     * View of a single node in a {@link BlockyNodeStore}
+     */
     public static final class BlockyNode {
-        private final String id;
-        private final String name;
-        private final Vector3f position;
-        private final Quaternionf orientation;
-        private final BlockyShape shape;
-        private final BlockyNode parent;
-
-        public BlockyNode(String id, String name, Vector3f position, Quaternionf orientation,
-                          BlockyShape shape, BlockyNode parent) {
-            this.id = id;
-            this.name = name;
-            // Defensive copies for mutable objects
-            this.position = new Vector3f(position);
-            this.orientation = new Quaternionf(orientation);
-            this.shape = shape;
-            this.parent = parent;
+        private final BlockyNodeStore store;
+        private final int index;
+
+        BlockyNode(BlockyNodeStore store, int index) {
+            this.store = store;
+            this.index = index;
         }
 
         // Getters only - no setters (immutable)
+        public int getIndex() {
+            return index;
+        }
+
         public String getId() {
-            return id;
+            return store.ids[index];
         }
 
         public String getName() {
-            return name;
+            return store.names[index];
+        }
+
+        public String getTexture() {
+            return store.texture(index);
         }
 
         public Vector3f getPosition() {
-            return new Vector3f(position);
+            return vec3(store.positions, index);
         }
 
         public Quaternionf getOrientation() {
-            return new Quaternionf(orientation);
+            return new Quaternionf(store.orientations[index * 4], store.orientations[index * 4 + 1],
+                    store.orientations[index * 4 + 2], store.orientations[index * 4 + 3]);
         }
 
         public BlockyShape getShape() {
-            return shape;
+            return store.hasShape(index) ? new BlockyShape(store, index) : null;
         }
 
         public BlockyNode getParent() {
-            return parent;
+            int parent = store.parentIndex(index);
+            return parent < 0 ? null : new BlockyNode(store, parent);
         }
 
         public boolean hasShape() {
-            return shape != null && shape.isVisible();
+            return store.hasVisibleShape(index);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof BlockyNode other && other.store == store && other.index == index;
+        }
+
+        @Override
+        public int hashCode() {
+            return System.identityHashCode(store) * 31 + index;
         }
 
         @Override
         public String toString() {
-            return "BlockyNode{id='" + id + "', name='" + name + "'}";
+            return "BlockyNode{id='" + getId() + "', name='" + getName() + "'}";
         }
     }
 
+    /**
+     * View of the shape of a single node in a {@link BlockyNodeStore}
+     */
     public static final class BlockyShape {
-        private final boolean visible;
-        private final boolean doubleSided;
-        private final Vector3f offset;
-        private final Vector3f stretch;
-        private final Vector3f originalSize;
-        private final Vector3f size;
-        private final Map<Direction, FaceTextureLayout> textureLayout;
-
-        public BlockyShape(boolean visible, boolean doubleSided, Vector3f offset,
-                           Vector3f stretch, Vector3f size,
-                           Map<Direction, FaceTextureLayout> textureLayout) {
-            this.visible = visible;
-            this.doubleSided = doubleSided;
-            this.offset = new Vector3f(offset);
-
-            this.stretch = new Vector3f(stretch);
-            this.originalSize = new Vector3f(size);
-            this.size = new Vector3f(
-                    size.x * Math.abs(stretch.x),
-                    size.y * Math.abs(stretch.y),
-                    size.z * Math.abs(stretch.z)
-            );
-
-            // Immutable map
-            this.textureLayout = Collections.unmodifiableMap(
-                    new EnumMap<>(textureLayout)
-            );
-        }
+        private final BlockyNodeStore store;
+        private final int index;
 
-        public static BlockyShape invisible() {
-            return new BlockyShape(
-                    false, false,
-                    new Vector3f(0, 0, 0),
-                    new Vector3f(1, 1, 1),
-                    new Vector3f(16, 16, 16),
-                    new EnumMap<>(Direction.class)
-            );
+        BlockyShape(BlockyNodeStore store, int index) {
+            this.store = store;
+            this.index = index;
         }
 
         // Getters
         public boolean isVisible() {
-            return visible;
+            return store.hasVisibleShape(index);
         }
 
         public boolean isDoubleSided() {
-            return doubleSided;
+            return store.isDoubleSided(index);
         }
 
         public Vector3f getOffset() {
-            return new Vector3f(offset);
+            return vec3(store.offsets, index);
         }
 
         public Vector3f getStretch() {
-            return stretch;
+            return vec3(store.stretches, index);
         }
 
         public Vector3f getOriginalSize() {
-            return originalSize;
+            return vec3(store.sizes, index);
         }
 
         public Vector3f getSize() {
-            return new Vector3f(size);
+            int i3 = index * 3;
+            return new Vector3f(
+                    store.sizes[i3] * Math.abs(store.stretches[i3]),
+                    store.sizes[i3 + 1] * Math.abs(store.stretches[i3 + 1]),
+                    store.sizes[i3 + 2] * Math.abs(store.stretches[i3 + 2])
+            );
         }
 
         public FaceTextureLayout getTextureLayout(Direction face) {
-            return textureLayout.get(face);
+            return store.layout(index, face);
         }
 
         public boolean hasTextureLayout(Direction face) {
-            return textureLayout.containsKey(face);
+            return store.packedLayout(index, face) != 0;
         }
     }
 
     public record FaceTextureLayout(int offsetX, int offsetY, boolean mirrorX, boolean mirrorY, int angle) {
+        private static final int PACKED_OFFSET_LIMIT = 1 << 12;
+        private static final int PACKED_OFFSET_MASK = (1 << 13) - 1;
+        private static final int PACKED_MASK = (1 << 30) - 1;
+        // The same few layouts repeat across every shape of every model, layouts no loaded model uses are dropped
+        private static final Interner<FaceTextureLayout> POOL = Interners.newWeakInterner();
+        private static final FaceTextureLayout DEFAULT = unpack(0);
+
         public FaceTextureLayout {
             if (angle != 0 && angle != 90 && angle != 180 && angle != 270) {
                 throw new IllegalArgumentException("Angle must be 0, 90, 180, or 270, got: " + angle);
@@ -313,7 +721,70 @@ public class BlockyModelGeometry implements ExtendedUnbakedGeometry {
         }
 
         public static FaceTextureLayout defaultLayout() {
-            return new FaceTextureLayout(0, 0, false, false, 0);
+            return DEFAULT;
+        }
+
+        /**
+         * Get a shared layout, layouts that cannot be packed are not pooled
+         *
+         * @param offsetX the texture x offset in pixels
+         * @param offsetY the texture y offset in pixels
+         * @param mirrorX whether the face is mirrored horizontally
+         * @param mirrorY whether the face is mirrored vertically
+         * @param angle   the rotation in degrees, 0, 90, 180 or 270
+         * @return the shared layout
+         */
+        public static FaceTextureLayout of(int offsetX, int offsetY, boolean mirrorX, boolean mirrorY, int angle) {
+            FaceTextureLayout layout = new FaceTextureLayout(offsetX, offsetY, mirrorX, mirrorY, angle);
+            if (!layout.isPackable()) {
+                return layout;
+            }
+            return POOL.intern(layout);
+        }
+
+        /**
+         * Check whether both offsets fit in the 13 signed bits of {@link #pack()}
+         *
+         * @return true if the layout can be packed
+         */
+        public boolean isPackable() {
+            return offsetX >= -PACKED_OFFSET_LIMIT && offsetX < PACKED_OFFSET_LIMIT
+                    && offsetY >= -PACKED_OFFSET_LIMIT && offsetY < PACKED_OFFSET_LIMIT;
+        }
+
+        /**
+         * Pack this layout into a single int
+         * Bits 0-12 and 13-25 hold the signed offsets, 26-27 the mirror flags and 28-29 the angle / 90
+         *
+         * @return the packed layout bits
+         * @throws IllegalArgumentException if the layout is not {@link #isPackable() packable}
+         */
+        public int pack() {
+            if (!isPackable()) {
+                throw new IllegalArgumentException("Texture offset out of packable range: " + this);
+            }
+            return (offsetX & PACKED_OFFSET_MASK)
+                    | (offsetY & PACKED_OFFSET_MASK) << 13
+                    | (mirrorX ? 1 : 0) << 26
+                    | (mirrorY ? 1 : 0) << 27
+                    | (angle / 90) << 28;
+        }
+
+        /**
+         * Unpack a layout written by {@link #pack()}, bits above the layout are ignored
+         *
+         * @param bits the packed layout bits
+         * @return the shared unpacked layout
+         */
+        public static FaceTextureLayout unpack(int bits) {
+            int packed = bits & PACKED_MASK;
+            return POOL.intern(new FaceTextureLayout(
+                    (packed << 19) >> 19,
+                    (packed << 6) >> 19,
+                    (packed & (1 << 26)) != 0,
+                    (packed & (1 << 27)) != 0,
+                    ((packed >>> 28) & 3) * 90
+            ));
         }
     }
 }
@@ -1,31 +1,194 @@
 package com.litehed.hytalemodels.modelstuff;
 
 import com.google.common.collect.Maps;
+import com.google.common.hash.HashCode;
+import com.google.common.hash.Hashing;
 import com.google.gson.JsonDeserializationContext;
+import com.google.gson.JsonElement;
 import com.google.gson.JsonObject;
 import com.google.gson.JsonParseException;
 import com.litehed.hytalemodels.HytaleModelLoader;
+import com.litehed.hytalemodels.blocks.BlockyModelBlock;
+import com.litehed.hytalemodels.profiling.BlockyModelEvents;
+import com.litehed.hytalemodels.profiling.BlockyModelStats;
+import com.litehed.hytalemodels.profiling.MemoryEstimator;
+import com.litehed.hytalemodels.profiling.ReloadTrace;
+import com.litehed.hytalemodels.render.BlockyEntityModel;
+import com.mojang.math.Transformation;
 import net.minecraft.client.Minecraft;
+import net.minecraft.client.resources.model.QuadCollection;
 import net.minecraft.resources.Identifier;
+import net.minecraft.server.packs.resources.PreparableReloadListener;
 import net.minecraft.server.packs.resources.Resource;
 import net.minecraft.server.packs.resources.ResourceManager;
-import net.minecraft.server.packs.resources.ResourceManagerReloadListener;
+import net.minecraft.util.GsonHelper;
+import net.minecraft.world.phys.AABB;
 import net.neoforged.neoforge.client.model.StandardModelParameters;
 import net.neoforged.neoforge.client.model.UnbakedModelLoader;
 
-import java.io.FileNotFoundException;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
 
-public class BlockyModelLoader implements UnbakedModelLoader<BlockyModel>, ResourceManagerReloadListener {
+public class BlockyModelLoader implements PreparableReloadListener, UnbakedModelLoader<BlockyModel> {
 
     public static final BlockyModelLoader INSTANCE = new BlockyModelLoader();
     public static final Identifier ID = Identifier.fromNamespaceAndPath(HytaleModelLoader.MODID, "blockymodel_loader");
-    private final Map<BlockyModelGeometry.Settings, BlockyModelGeometry> geometryCache = Maps.newConcurrentMap();
+    // Directory that is scanned for models to preload, models outside of it are still loaded on demand
+    private static final String PRELOAD_DIRECTORY = "models";
+    private static final Identifier SOLID_RENDER_TYPE = Identifier.withDefaultNamespace("solid");
+    // Parsed nodes by content hash, kept across reloads and shared by every location with the same bytes
+    private final Map<HashCode, BlockyNodeStore> storeCache = Maps.newConcurrentMap();
+    // Geometry per model location, settings and content
+    private final Map<GeometryKey, BlockyModelGeometry> geometryCache = Maps.newConcurrentMap();
+    // First geometry per settings and content, copies of a file under other paths share its nodes and mesh
+    private final Map<MeshKey, BlockyModelGeometry> meshCache = Maps.newConcurrentMap();
+    // Content hash per location as of the last finished reload, plus models first requested after it
+    private final Map<Identifier, HashCode> resolvedSources = Maps.newConcurrentMap();
+    private final AtomicInteger generation = new AtomicInteger();
+    // The running reload, null between reloads
+    private volatile Reload activeReload;
+    // Skin per baked QuadCollection as of the last finished reload
+    private volatile Map<QuadCollection, Supplier<BlockyModelSkin>> skins = Map.of();
 
-    // Important for cleaning up during resource reloads
+    /**
+     * Discovers every BlockyModel and validates or parses them in parallel on the reload executor
+     * The vanilla model listener prepares at the same time, a model it reads joins the preload of that
+     * location instead of parsing it again, see {@link Reload#resolve}
+     * Caches are only changed in {@link #apply}, after every listener has finished preparing
+     *
+     * @param sharedState        the shared state of this reload, holding its resource manager
+     * @param backgroundExecutor the executor for preparation work
+     * @param barrier            the barrier between the prepare and apply phases
+     * @param gameExecutor       the executor for the apply phase
+     * @return the future of the whole reload
+     */
     @Override
-    public void onResourceManagerReload(ResourceManager resourceManager) {
-        geometryCache.clear();
+    public CompletableFuture<Void> reload(SharedState sharedState, Executor backgroundExecutor,
+                                          PreparationBarrier barrier, Executor gameExecutor) {
+        ReloadTrace.begin();
+        Reload reload = new Reload(sharedState.resourceManager(), generation.incrementAndGet());
+        activeReload = reload;
+
+        return CompletableFuture.supplyAsync(() -> listModels(reload.manager), backgroundExecutor)
+                .thenCompose(locations -> CompletableFuture.allOf(locations.stream()
+                                .map(location -> CompletableFuture.runAsync(() -> preload(reload, location), backgroundExecutor))
+                                .toArray(CompletableFuture[]::new))
+                        .thenApply(ignored -> locations.size()))
+                .thenCompose(barrier::wait)
+                .thenAcceptAsync(preloaded -> apply(reload, preloaded), gameExecutor)
+                .whenComplete((ignored, error) -> {
+                    if (error != null && activeReload == reload) {
+                        activeReload = null;
+                    }
+                });
+    }
+
+    /**
+     * Check whether the models of a reload are still being baked, item models copy baked quads at this point
+     *
+     * @param generation the reload generation
+     * @return true if the reload of that generation is running
+     */
+    public boolean isBaking(int generation) {
+        Reload reload = activeReload;
+        return reload != null && reload.generation == generation;
+    }
+
+    /**
+     * Lists every BlockyModel below the preload directory
+     *
+     * @param manager the resource manager of the reload
+     * @return the source locations, compiled models are listed under their .blockymodel location
+     */
+    private static Set<Identifier> listModels(ResourceManager manager) {
+        long start = ReloadTrace.start();
+        Set<Identifier> locations = new LinkedHashSet<>();
+        manager.listResources(PRELOAD_DIRECTORY, BlockyModelLoader::isBlockyModelFile).keySet()
+                .forEach(location -> locations.add(BlockyModelBinary.sourceLocation(location)));
+        ReloadTrace.end("listResources", null, start);
+        return locations;
+    }
+
+    /**
+     * Publishes the models resolved during a reload and evicts every model whose resource changed or disappeared
+     * Every listener has finished preparing at this point, so models are baked and the reload trace is complete
+     *
+     * @param reload    the finished reload
+     * @param preloaded the number of preloaded models
+     */
+    private void apply(Reload reload, int preloaded) {
+        Map<Identifier, HashCode> resolved = new HashMap<>();
+        reload.sources.forEach((location, future) -> {
+            if (future.isDone() && !future.isCompletedExceptionally()) {
+                resolved.put(location, future.join());
+            }
+        });
+        resolvedSources.clear();
+        resolvedSources.putAll(resolved);
+
+        Set<HashCode> live = new HashSet<>(resolved.values());
+        int before = storeCache.size();
+        storeCache.keySet().retainAll(live);
+        // Keys no model JSON asked for in this reload belong to changed settings or removed model JSONs
+        geometryCache.keySet().retainAll(reload.geometries);
+        Set<MeshKey> meshes = new HashSet<>();
+        reload.geometries.forEach(key -> meshes.add(key.mesh()));
+        meshCache.keySet().retainAll(meshes);
+        // Bakes of earlier reloads hold sprites of atlases that no longer exist
+        geometryCache.values().forEach(geometry -> geometry.retainBakes(reload.generation));
+        meshCache.values().forEach(geometry -> geometry.retainBakes(reload.generation));
+        if (activeReload == reload) {
+            activeReload = null;
+        }
+        BlockyModelBlock.setFaceHidingBoxes(Map.copyOf(reload.occlusion));
+        BlockyEntityModel.clearCache();
+        skins = Map.copyOf(reload.skins);
+
+        HytaleModelLoader.LOGGER.debug("[BlockyModelLoader] Preloaded {} models: {} parsed, {} reused, {} shared with another path, {} evicted",
+                preloaded, reload.parsed.get(), live.size() - reload.parsed.get(),
+                resolved.size() - live.size(), before - storeCache.size());
+        ReloadTrace.finish();
+    }
+
+    /**
+     * Parses a single model during the prepare phase, failures are logged and left
+     * for {@link #read} to report if the model is actually used
+     *
+     * @param reload   the running reload
+     * @param location the location of the model
+     */
+    private void preload(Reload reload, Identifier location) {
+        long start = ReloadTrace.start();
+        reload.resolve(location).whenComplete((content, e) -> {
+            if (e != null) {
+                HytaleModelLoader.LOGGER.warn("[BlockyModelLoader] Failed to preload model {}", location, e);
+            }
+        });
+        ReloadTrace.end("preload", location, start);
+    }
+
+    private static boolean isBlockyModelFile(Identifier location) {
+        String path = location.getPath();
+        return path.endsWith(BlockyModelBinary.SOURCE_EXTENSION) || path.endsWith(BlockyModelBinary.EXTENSION);
     }
 
     /**
@@ -45,29 +208,393 @@ public class BlockyModelLoader implements UnbakedModelLoader<BlockyModel>, Resou
         }
 
         String modelLocation = jsonObject.get("model").getAsString();
+        boolean mergeQuads = GsonHelper.getAsBoolean(jsonObject, "merge_quads", false);
+        boolean cullHiddenFaces = GsonHelper.getAsBoolean(jsonObject, "cull_hidden_faces", false);
+        boolean solid = GsonHelper.getAsBoolean(jsonObject, "solid", false);
+        float detailThreshold = GsonHelper.getAsFloat(jsonObject, "detail_threshold", 0);
+        int maxQuads = GsonHelper.getAsInt(jsonObject, "max_quads", 0);
+        if (detailThreshold < 0 || maxQuads < 0) {
+            throw new JsonParseException("BlockyModel 'detail_threshold' and 'max_quads' must not be negative.");
+        }
+        Map<String, String> nodeTextures = parseNodeTextures(jsonObject);
         StandardModelParameters parameters = StandardModelParameters.parse(jsonObject, jsonDeserializationContext);
 
-        var geometry = loadGeometry(new BlockyModelGeometry.Settings(Identifier.parse(modelLocation)));
+        Identifier location = Identifier.parse(modelLocation);
+        var geometry = loadGeometry(new BlockyModelGeometry.Settings(location,
+                mergeQuads, cullHiddenFaces, detailThreshold, maxQuads, nodeTextures));
+        if (solid) {
+            collectOcclusion(location, geometry.getStore(), GsonHelper.getAsString(jsonObject, "render_type", SOLID_RENDER_TYPE.toString()),
+                    parameters.rootTransform());
+        }
         return new BlockyModel(parameters, geometry);
     }
 
+    /**
+     * Records the face hiding boxes of a model marked solid for {@link BlockyModelBlock}
+     * The boxes come from the same resolved nodes and root transform the model is baked with,
+     * models with another render type may have transparent pixels and never hide faces
+     *
+     * @param location      the location of the .blockymodel file
+     * @param store         the resolved nodes of the model
+     * @param renderType    the render type of the model JSON
+     * @param rootTransform the root transform of the model JSON, may be null
+     */
+    private void collectOcclusion(Identifier location, BlockyNodeStore store, String renderType, Transformation rootTransform) {
+        if (!SOLID_RENDER_TYPE.equals(Identifier.parse(renderType))) {
+            HytaleModelLoader.LOGGER.warn("[BlockyModelLoader] Model {} is marked solid but uses render type {}, it will not hide neighbour faces",
+                    location, renderType);
+            return;
+        }
+        Reload reload = activeReload;
+        if (reload == null) {
+            return;
+        }
+        List<AABB> boxes = BlockyMeshOptimizer.opaqueBoxes(store,
+                rootTransform != null ? rootTransform : Transformation.identity());
+        List<AABB> existing = reload.occlusion.putIfAbsent(location, boxes);
+        if (existing != null && !existing.equals(boxes)) {
+            HytaleModelLoader.LOGGER.warn("[BlockyModelLoader] Model {} is placed differently by several solid models, keeping one of them",
+                    location);
+        }
+    }
+
+    /**
+     * Record the skin of a bake, every model JSON that dresses the model differently gets its own quads
+     *
+     * @param quads the baked quads, as held by the block state models
+     * @param skin  the skin of the bake, built on first use
+     */
+    void recordSkin(QuadCollection quads, Supplier<BlockyModelSkin> skin) {
+        Reload reload = activeReload;
+        if (reload != null) {
+            reload.skins.putIfAbsent(quads, skin);
+        }
+    }
+
+    /**
+     * Get the skin of quads baked in the last reload
+     *
+     * @param quads the quads of a block state model part
+     * @return the skin, or null if the quads are not a BlockyModel bake
+     */
+    public BlockyModelSkin getSkin(QuadCollection quads) {
+        Supplier<BlockyModelSkin> skin = skins.get(quads);
+        return skin != null ? skin.get() : null;
+    }
+
+    /**
+     * Reads the optional node name to texture slot mapping of a model
+     *
+     * @param jsonObject the JsonObject representing the BlockyModel
+     * @return the mapping, slot names without a leading '#'
+     * @throws JsonParseException if the mapping is not an object of strings
+     */
+    private static Map<String, String> parseNodeTextures(JsonObject jsonObject) throws JsonParseException {
+        if (!jsonObject.has("node_textures")) {
+            return Map.of();
+        }
+
+        Map<String, String> nodeTextures = new HashMap<>();
+        for (Map.Entry<String, JsonElement> entry : GsonHelper.getAsJsonObject(jsonObject, "node_textures").entrySet()) {
+            String slot = GsonHelper.convertToString(entry.getValue(), entry.getKey());
+            nodeTextures.put(entry.getKey(), slot.startsWith("#") ? slot.substring(1) : slot);
+        }
+        return Map.copyOf(nodeTextures);
+    }
+
     /**
      * Loads and parses a BlockyModel file from the given location
+     * The node store is shared by every settings variant of the same file, and the mesh by every location
+     * whose file has the same content and settings, each location still gets its own geometry and bakes
      *
      * @param settings the settings containing the model location
      * @return the parsed BlockyModelGeometry
      */
     public BlockyModelGeometry loadGeometry(BlockyModelGeometry.Settings settings) {
-        return geometryCache.computeIfAbsent(settings, (data) -> {
-            ResourceManager manager = Minecraft.getInstance().getResourceManager();
-            Resource resource = manager.getResource(settings.modelLocation()).orElseThrow();
-            try (BlockyModelTokenizer tokenizer = new BlockyModelTokenizer(resource.open())) {
-                return BlockyModelGeometry.parse(tokenizer, data);
-            } catch (FileNotFoundException e) {
-                throw new RuntimeException("Could not find BlockyModel file", e);
-            } catch (Exception e) {
-                throw new RuntimeException("Could not read BlockyModel file", e);
+        long traceStart = ReloadTrace.start();
+        Reload reload = activeReload;
+        HashCode content = resolveSource(settings.modelLocation());
+        MeshKey meshKey = MeshKey.of(settings, content);
+        GeometryKey key = new GeometryKey(settings.modelLocation(), meshKey);
+        if (reload != null) {
+            reload.geometries.add(key);
+        }
+
+        BlockyModelEvents.GeometryCache event = new BlockyModelEvents.GeometryCache();
+        event.begin();
+        BlockyModelGeometry geometry = geometryCache.get(key);
+        boolean hit = geometry != null;
+        if (!hit) {
+            geometry = geometryCache.computeIfAbsent(key, k -> {
+                BlockyModelGeometry shared = meshCache.computeIfAbsent(meshKey,
+                        m -> new BlockyModelGeometry(storeCache.get(content), settings));
+                return shared.getModelLocation().equals(settings.modelLocation())
+                        ? shared
+                        : new BlockyModelGeometry(shared, settings);
+            });
+        }
+        event.end();
+        geometry.setGeneration(reload != null ? reload.generation : generation.get());
+
+        (hit ? BlockyModelStats.GEOMETRY_HITS : BlockyModelStats.GEOMETRY_MISSES).increment();
+        if (event.shouldCommit()) {
+            event.location = settings.modelLocation().toString();
+            event.hit = hit;
+            event.nodeCount = geometry.getStore().size();
+            event.commit();
+        }
+        ReloadTrace.end("loadGeometry", settings.modelLocation(), traceStart);
+        return geometry;
+    }
+
+    /**
+     * Estimate the heap held by every cached model, geometries sharing file content are reported together
+     *
+     * @return one entry per distinct model file content, most expensive first
+     */
+    public List<ModelMemory> memoryReport() {
+        Map<HashCode, Identifier> locations = new HashMap<>();
+        resolvedSources.forEach((location, content) -> locations.merge(content, location,
+                (a, b) -> a.compareTo(b) <= 0 ? a : b));
+
+        Map<HashCode, ModelMemory> report = new HashMap<>();
+        storeCache.forEach((content, store) -> {
+            Identifier location = locations.get(content);
+            if (location != null) {
+                report.put(content, new ModelMemory(location, store.size(), store.estimateBytes(), 0, 0, 0, 0));
             }
         });
+
+        // Meshes are shared between locations, count each one once
+        Set<BlockyMesh> counted = Collections.newSetFromMap(new IdentityHashMap<>());
+        geometryCache.forEach((key, geometry) -> report.computeIfPresent(key.mesh().content(), (content, memory) -> {
+            BlockyMesh built = geometry.getBuiltMesh();
+            BlockyMesh mesh = built != null && counted.add(built) ? built : null;
+            int bakedQuads = geometry.getBakedQuadCount();
+            return new ModelMemory(memory.location(), memory.nodeCount(), memory.parsedBytes(),
+                    memory.meshBytes() + (mesh != null ? mesh.estimateBytes() : 0),
+                    memory.meshQuads() + (mesh != null ? mesh.quadCount() : 0),
+                    memory.bakedQuads() + bakedQuads,
+                    memory.bakedBytes() + MemoryEstimator.bakedQuads(bakedQuads));
+        }));
+
+        List<ModelMemory> sorted = new ArrayList<>(report.values());
+        sorted.sort(Comparator.comparingLong(ModelMemory::totalBytes).reversed());
+        return sorted;
+    }
+
+    /**
+     * Loads the node store of a model without creating a geometry, used by animation and entity rendering
+     *
+     * @param location the location of the .blockymodel file
+     * @return the shared node store
+     */
+    public BlockyNodeStore loadStore(Identifier location) {
+        return storeCache.get(resolveSource(location));
+    }
+
+    /**
+     * Resolves a model file and makes sure its nodes are parsed
+     * During a reload every location is resolved once against the resource manager of that reload and
+     * concurrent requests wait for it, between reloads the result of the last reload is used and
+     * models that were never requested are resolved against the client resource manager
+     *
+     * @param location the location of the .blockymodel file
+     * @return the content hash keying the parsed nodes in the store cache
+     */
+    private HashCode resolveSource(Identifier location) {
+        Reload reload = activeReload;
+        if (reload != null) {
+            try {
+                return reload.resolve(location).join();
+            } catch (CompletionException e) {
+                throw e.getCause() instanceof RuntimeException cause ? cause : e;
+            }
+        }
+
+        HashCode resolved = resolvedSources.get(location);
+        if (resolved != null && storeCache.containsKey(resolved)) {
+            return resolved;
+        }
+        HashCode content = loadSource(Minecraft.getInstance().getResourceManager(), location, null);
+        resolvedSources.put(location, content);
+        return content;
+    }
+
+    /**
+     * Hashes the winning resource of a model file and parses its nodes unless a file with the same
+     * content hash was parsed before, under this or any other location
+     * Parsing happens outside the cache lock so parallel preloading never serializes on map bins
+     *
+     * @param manager  the resource manager to read from
+     * @param location the location of the .blockymodel file
+     * @param parsed   counts the models parsed, may be null
+     * @return the content hash keying the parsed nodes in the store cache
+     */
+    private HashCode loadSource(ResourceManager manager, Identifier location, AtomicInteger parsed) {
+        long readStart = ReloadTrace.start();
+        ModelSource modelSource = readSource(manager, location);
+        ReloadTrace.end("readSource", location, readStart);
+        HashCode key = modelSource.contentHash();
+
+        if (!storeCache.containsKey(key)) {
+            BlockyNodeStore store = parseNodes(location, modelSource);
+            if (storeCache.putIfAbsent(key, store) == null && parsed != null) {
+                parsed.incrementAndGet();
+            }
+        }
+        return key;
+    }
+
+    /**
+     * Reads the bytes of the winning resource for a model, preferring a compiled model
+     *
+     * @param manager  the resource manager to read from
+     * @param location the location of the .blockymodel file
+     * @return the bytes and content hash of the model
+     */
+    private static ModelSource readSource(ResourceManager manager, Identifier location) {
+        Optional<Resource> source = manager.getResource(location);
+        Optional<Resource> compiled = findCompiled(manager, location, source);
+
+        Resource resource = compiled.or(() -> source).orElseThrow(
+                () -> new RuntimeException("Could not find BlockyModel file " + location));
+        try (InputStream stream = resource.open()) {
+            byte[] bytes = stream.readAllBytes();
+            return new ModelSource(bytes, compiled.isPresent(), Hashing.murmur3_128().hashBytes(bytes));
+        } catch (IOException e) {
+            throw new RuntimeException("Could not read BlockyModel file", e);
+        }
+    }
+
+    /**
+     * Parses the nodes of a model from already read model bytes
+     *
+     * @param location the location of the model
+     * @param source   the model bytes
+     * @return the parsed node store
+     */
+    private static BlockyNodeStore parseNodes(Identifier location, ModelSource source) {
+        BlockyModelStats.PARSED_BYTES.add(source.bytes().length);
+        if (source.compiled()) {
+            try {
+                BlockyModelEvents.Parse event = new BlockyModelEvents.Parse();
+                long traceStart = ReloadTrace.start();
+                long start = System.nanoTime();
+                event.begin();
+                BlockyNodeStore store = BlockyModelBinaryReader.parseNodes(ByteBuffer.wrap(source.bytes()));
+                event.end();
+                BlockyModelGeometry.recordParse(event, location.toString(), store, true, false, System.nanoTime() - start);
+                ReloadTrace.end("parseCompiled", location, traceStart);
+                return store;
+            } catch (Exception e) {
+                throw new RuntimeException("Could not read compiled BlockyModel file", e);
+            }
+        }
+
+        try (BlockyModelTokenizer tokenizer = new BlockyModelTokenizer(new ByteArrayInputStream(source.bytes()))) {
+            return BlockyModelGeometry.parseNodes(tokenizer, location);
+        } catch (Exception e) {
+            throw new RuntimeException("Could not read BlockyModel file", e);
+        }
+    }
+
+    /**
+     * Finds the compiled .blockybin next to a .blockymodel
+     * A compiled model is only used if it comes from the same pack as the winning source,
+     * so a pack overriding the .blockymodel is never shadowed by a stale compiled copy
+     *
+     * @param manager        the resource manager to search
+     * @param sourceLocation the location of the .blockymodel file
+     * @param source         the resolved .blockymodel resource, if any
+     * @return the compiled resource, or empty if the source should be parsed instead
+     */
+    private static Optional<Resource> findCompiled(ResourceManager manager, Identifier sourceLocation, Optional<Resource> source) {
+        Optional<Resource> compiled = manager.getResource(BlockyModelBinary.compiledLocation(sourceLocation));
+        if (compiled.isPresent() && source.isPresent()
+                && !compiled.get().sourcePackId().equals(source.get().sourcePackId())) {
+            return Optional.empty();
+        }
+        return compiled;
+    }
+
+    /**
+     * Identity of a geometry: the model location and the identity of its mesh
+     */
+    private record GeometryKey(Identifier location, MeshKey mesh) {
+    }
+
+    /**
+     * Identity of a mesh: every setting except the model location, and the content hash of the model file
+     */
+    private record MeshKey(boolean mergeQuads, boolean cullHiddenFaces, float detailThreshold, int maxQuads,
+                           Map<String, String> nodeTextures, HashCode content) {
+        static MeshKey of(BlockyModelGeometry.Settings settings, HashCode content) {
+            return new MeshKey(settings.mergeQuads(), settings.cullHiddenFaces(), settings.detailThreshold(),
+                    settings.maxQuads(), settings.nodeTextures(), content);
+        }
+    }
+
+    /**
+     * Estimated heap held by one model file
+     *
+     * @param location    the location of the .blockymodel file
+     * @param nodeCount   the number of nodes
+     * @param parsedBytes the parsed node and shape data
+     * @param meshBytes   the sprite independent meshes of all geometries of the file
+     * @param meshQuads   the quads in those meshes
+     * @param bakedQuads  the baked quads cached by all geometries of the file
+     * @param bakedBytes  the baked quad data
+     */
+    public record ModelMemory(Identifier location, int nodeCount, long parsedBytes, long meshBytes, int meshQuads,
+                              int bakedQuads, long bakedBytes) {
+        public long totalBytes() {
+            return parsedBytes + meshBytes + bakedBytes;
+        }
+    }
+
+    private record ModelSource(byte[] bytes, boolean compiled, HashCode contentHash) {
+    }
+
+    /**
+     * One running reload, it holds the resource manager of the reload so nothing outlives it
+     * Every location is resolved once, whoever asks first does the work and every other caller joins its future
+     */
+    private final class Reload {
+        private final ResourceManager manager;
+        private final int generation;
+        private final Map<Identifier, CompletableFuture<HashCode>> sources = Maps.newConcurrentMap();
+        private final AtomicInteger parsed = new AtomicInteger();
+        // Block space face hiding boxes of the models marked solid
+        private final Map<Identifier, List<AABB>> occlusion = Maps.newConcurrentMap();
+        // Skin per baked QuadCollection, every model JSON that dresses a model differently has its own
+        private final Map<QuadCollection, Supplier<BlockyModelSkin>> skins = Maps.newConcurrentMap();
+        // Geometries loaded by the model JSONs of this reload
+        private final Set<GeometryKey> geometries = ConcurrentHashMap.newKeySet();
+
+        private Reload(ResourceManager manager, int generation) {
+            this.manager = manager;
+            this.generation = generation;
+        }
+
+        /**
+         * Resolve a location on the calling thread, or get the future of the thread that already does
+         *
+         * @param location the location of the .blockymodel file
+         * @return the future content hash
+         */
+        CompletableFuture<HashCode> resolve(Identifier location) {
+            CompletableFuture<HashCode> created = new CompletableFuture<>();
+            CompletableFuture<HashCode> existing = sources.putIfAbsent(location, created);
+            if (existing != null) {
+                return existing;
+            }
+            try {
+                created.complete(loadSource(manager, location, parsed));
+            } catch (RuntimeException e) {
+                created.completeExceptionally(e);
+            }
+            return created;
+        }
     }
 }
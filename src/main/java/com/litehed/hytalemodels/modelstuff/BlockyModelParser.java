@@ -7,63 +7,67 @@ import com.google.gson.JsonParseException;
 import com.litehed.hytalemodels.HytaleModelLoader;
 import net.minecraft.core.Direction;
 import org.joml.Quaternionf;
+import org.joml.Quaternionfc;
 import org.joml.Vector3f;
+import org.joml.Vector3fc;
 
-import java.util.ArrayList;
 import java.util.EnumMap;
-import java.util.List;
 import java.util.Map;
 
 public class BlockyModelParser {
 
-    private static final float DEFAULT_SIZE = 16.0f;
-    private static final float DEFAULT_STRETCH = 1.0f;
-    private static final Vector3f DEFAULT_POSITION = new Vector3f(0, 0, 0);
-    private static final Quaternionf DEFAULT_ORIENTATION = new Quaternionf();
+    static final float DEFAULT_SIZE = 16.0f;
+    static final float DEFAULT_STRETCH = 1.0f;
+    // Shared defaults, the store copies vector values so parsers never need their own instance
+    static final Vector3fc ZERO = new Vector3f();
+    static final Vector3fc DEFAULT_STRETCH_VECTOR = new Vector3f(DEFAULT_STRETCH);
+    static final Vector3fc DEFAULT_SIZE_VECTOR = new Vector3f(DEFAULT_SIZE);
+    static final Quaternionfc DEFAULT_ORIENTATION = new Quaternionf();
 
     /**
      * Parse the nodes from the root JsonObject
      *
      * @param root the root JsonObject of the BlockyModel
-     * @return a list of parsed BlockyNodes
+     * @return the store holding the parsed nodes
      * @throws JsonParseException if required fields are missing or invalid
      */
-    public static List<BlockyModelGeometry.BlockyNode> parseNodes(JsonObject root) throws JsonParseException {
+    public static BlockyNodeStore parseNodes(JsonObject root) throws JsonParseException {
         if (!root.has("nodes")) {
             throw new JsonParseException("BlockyModel file must contain a 'nodes' array");
         }
 
-        List<BlockyModelGeometry.BlockyNode> nodes = new ArrayList<>();
+        BlockyNodeStore.Builder nodes = BlockyNodeStore.builder();
         JsonArray nodesArray = root.getAsJsonArray("nodes");
 
         for (JsonElement nodeElement : nodesArray) {
-            parseNode(nodeElement.getAsJsonObject(), null, nodes);
+            parseNode(nodeElement.getAsJsonObject(), -1, nodes);
         }
 
-        return nodes;
+        return nodes.build();
     }
 
     /**
      * Parse a single node and its children recursively
      *
      * @param nodeObj  the JsonObject representing the node
-     * @param parent   the parent BlockyNode, or null if root
-     * @param allNodes the list to add parsed nodes to
+     * @param parent   the index of the parent node, or -1 if root
+     * @param allNodes the store builder to add parsed nodes to
      * @throws JsonParseException if required fields are missing or invalid
      */
-    private static void parseNode(JsonObject nodeObj, BlockyModelGeometry.BlockyNode parent, List<BlockyModelGeometry.BlockyNode> allNodes) {
+    private static void parseNode(JsonObject nodeObj, int parent, BlockyNodeStore.Builder allNodes) {
         validateRequiredFields(nodeObj);
 
-        BlockyModelGeometry.BlockyNode node = new BlockyModelGeometry.BlockyNode(
+        int node = allNodes.addNode(
                 parseString(nodeObj, "id"),
                 parseString(nodeObj, "name"),
                 parsePosition(nodeObj),
                 parseOrientation(nodeObj),
-                parseShape(nodeObj),
                 parent
         );
-
-        allNodes.add(node);
+        allNodes.setShape(node, parseShape(nodeObj));
+        if (nodeObj.has("texture")) {
+            allNodes.setTexture(node, parseString(nodeObj, "texture"));
+        }
 
         // Parse children recursively
         if (nodeObj.has("children")) {
@@ -106,9 +110,9 @@ public class BlockyModelParser {
      * @param nodeObj the JsonObject representing the node
      * @return the parsed position vector
      */
-    private static Vector3f parsePosition(JsonObject nodeObj) {
+    private static Vector3fc parsePosition(JsonObject nodeObj) {
         if (!nodeObj.has("position")) {
-            return new Vector3f(DEFAULT_POSITION);
+            return ZERO;
         }
 
         JsonObject pos = nodeObj.getAsJsonObject("position");
@@ -125,9 +129,9 @@ public class BlockyModelParser {
      * @param nodeObj the JsonObject representing the node
      * @return the parsed orientation quaternion
      */
-    private static Quaternionf parseOrientation(JsonObject nodeObj) {
+    private static Quaternionfc parseOrientation(JsonObject nodeObj) {
         if (!nodeObj.has("orientation")) {
-            return new Quaternionf(DEFAULT_ORIENTATION);
+            return DEFAULT_ORIENTATION;
         }
 
         JsonObject orient = nodeObj.getAsJsonObject("orientation");
@@ -143,9 +147,9 @@ public class BlockyModelParser {
      * Parse the shape from a node
      *
      * @param nodeObj the JsonObject representing the node
-     * @return the parsed BlockyShape, or null if none
+     * @return the parsed shape definition, or null if none
      */
-    private static BlockyModelGeometry.BlockyShape parseShape(JsonObject nodeObj) {
+    private static BlockyNodeStore.ShapeDefinition parseShape(JsonObject nodeObj) {
         if (!nodeObj.has("shape")) {
             return null;
         }
@@ -154,10 +158,10 @@ public class BlockyModelParser {
 
         boolean visible = getBooleanOrDefault(shapeObj, "visible", true);
         if (!visible) {
-            return BlockyModelGeometry.BlockyShape.invisible();
+            return BlockyNodeStore.ShapeDefinition.invisible();
         }
 
-        return new BlockyModelGeometry.BlockyShape(
+        return new BlockyNodeStore.ShapeDefinition(
                 visible,
                 getBooleanOrDefault(shapeObj, "doubleSided", false),
                 parseOffset(shapeObj),
@@ -173,9 +177,9 @@ public class BlockyModelParser {
      * @param shapeObj the JsonObject representing the shape
      * @return the parsed offset vector
      */
-    private static Vector3f parseOffset(JsonObject shapeObj) {
+    private static Vector3fc parseOffset(JsonObject shapeObj) {
         if (!shapeObj.has("offset")) {
-            return new Vector3f(0, 0, 0);
+            return ZERO;
         }
 
         JsonObject offset = shapeObj.getAsJsonObject("offset");
@@ -192,9 +196,9 @@ public class BlockyModelParser {
      * @param shapeObj the JsonObject representing the shape
      * @return the parsed stretch vector
      */
-    private static Vector3f parseStretch(JsonObject shapeObj) {
+    private static Vector3fc parseStretch(JsonObject shapeObj) {
         if (!shapeObj.has("stretch")) {
-            return new Vector3f(1, 1, 1);
+            return DEFAULT_STRETCH_VECTOR;
         }
 
         JsonObject stretch = shapeObj.getAsJsonObject("stretch");
@@ -211,14 +215,14 @@ public class BlockyModelParser {
      * @param shapeObj the JsonObject representing the shape
      * @return the parsed size vector
      */
-    private static Vector3f parseSize(JsonObject shapeObj) {
+    private static Vector3fc parseSize(JsonObject shapeObj) {
         if (!shapeObj.has("settings")) {
-            return new Vector3f(DEFAULT_SIZE, DEFAULT_SIZE, DEFAULT_SIZE);
+            return DEFAULT_SIZE_VECTOR;
         }
 
         JsonObject settings = shapeObj.getAsJsonObject("settings");
         if (!settings.has("size")) {
-            return new Vector3f(DEFAULT_SIZE, DEFAULT_SIZE, DEFAULT_SIZE);
+            return DEFAULT_SIZE_VECTOR;
         }
 
         JsonObject size = settings.getAsJsonObject("size");
@@ -233,15 +237,14 @@ public class BlockyModelParser {
      * Parse the texture layout from a shape JsonObject
      *
      * @param shapeObj the JsonObject representing the shape
-     * @return the parsed texture layout map
+     * @return the parsed texture layout map, the shared empty map if the shape has none
      */
     private static Map<Direction, BlockyModelGeometry.FaceTextureLayout> parseTextureLayout(JsonObject shapeObj) {
-        Map<Direction, BlockyModelGeometry.FaceTextureLayout> layoutMap = new EnumMap<>(Direction.class);
-
         if (!shapeObj.has("textureLayout")) {
-            return layoutMap;
+            return Map.of();
         }
 
+        Map<Direction, BlockyModelGeometry.FaceTextureLayout> layoutMap = new EnumMap<>(Direction.class);
         JsonObject texLayout = shapeObj.getAsJsonObject("textureLayout");
         for (String dirName : texLayout.keySet()) {
             Direction dir = parseDirectionName(dirName);
@@ -257,7 +260,7 @@ public class BlockyModelParser {
      * Parse a single face texture layout from a JsonObject
      *
      * @param faceLayout the JsonObject representing the face layout
-     * @return the parsed FaceTextureLayout
+     * @return the shared FaceTextureLayout
      */
     private static BlockyModelGeometry.FaceTextureLayout parseFaceLayout(JsonObject faceLayout) {
         int offsetX = 0, offsetY = 0;
@@ -281,7 +284,7 @@ public class BlockyModelParser {
             validateAngle(angle);
         }
 
-        return new BlockyModelGeometry.FaceTextureLayout(offsetX, offsetY, mirrorX, mirrorY, angle);
+        return BlockyModelGeometry.FaceTextureLayout.of(offsetX, offsetY, mirrorX, mirrorY, angle);
     }
 
     /**
@@ -290,7 +293,7 @@ public class BlockyModelParser {
      * @param name the direction name string
      * @return the corresponding Direction enum, or null if unknown
      */
-    private static Direction parseDirectionName(String name) {
+    static Direction parseDirectionName(String name) {
         return switch (name.toLowerCase()) {
             case "front" -> Direction.SOUTH;
             case "back" -> Direction.NORTH;
@@ -312,7 +315,7 @@ public class BlockyModelParser {
      * @param angle the angle to validate
      * @throws JsonParseException if the angle is invalid
      */
-    private static void validateAngle(int angle) {
+    static void validateAngle(int angle) {
         if (angle != 0 && angle != 90 && angle != 180 && angle != 270) {
             throw new JsonParseException("Invalid angle: " + angle + ". Must be 0, 90, 180, or 270");
         }
@@ -331,4 +334,4 @@ public class BlockyModelParser {
     private static boolean getBooleanOrDefault(JsonObject obj, String key, boolean defaultValue) {
         return obj.has(key) ? obj.get(key).getAsBoolean() : defaultValue;
     }
-}
\ No newline at end of file
+}
\ No newline at end of file
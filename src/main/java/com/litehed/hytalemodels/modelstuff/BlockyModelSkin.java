@@ -0,0 +1,16 @@
+package com.litehed.hytalemodels.modelstuff;
+
+import com.mojang.math.Transformation;
+import net.minecraft.client.renderer.rendertype.RenderType;
+import net.minecraft.client.renderer.texture.TextureAtlasSprite;
+
+/**
+ * How a model JSON dresses a BlockyModel, for renderers that pose nodes at runtime instead of using the baked quads
+ * Recorded when the model is baked, so it follows the same texture slots, render type and root transform
+ *
+ * @param nodeSprites   the sprite of every node, resolved like the baked quads
+ * @param rootTransform the root transform of the model JSON, applied around the block center
+ * @param renderType    the entity render type matching the render type of the model JSON
+ */
+public record BlockyModelSkin(TextureAtlasSprite[] nodeSprites, Transformation rootTransform, RenderType renderType) {
+}
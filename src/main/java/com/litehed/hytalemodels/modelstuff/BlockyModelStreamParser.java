@@ -0,0 +1,396 @@
+package com.litehed.hytalemodels.modelstuff;
+
+import com.google.gson.JsonParseException;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import net.minecraft.core.Direction;
+import org.joml.Quaternionf;
+import org.joml.Vector3f;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+import static com.litehed.hytalemodels.modelstuff.BlockyModelParser.DEFAULT_ORIENTATION;
+import static com.litehed.hytalemodels.modelstuff.BlockyModelParser.DEFAULT_SIZE;
+import static com.litehed.hytalemodels.modelstuff.BlockyModelParser.DEFAULT_SIZE_VECTOR;
+import static com.litehed.hytalemodels.modelstuff.BlockyModelParser.DEFAULT_STRETCH;
+import static com.litehed.hytalemodels.modelstuff.BlockyModelParser.DEFAULT_STRETCH_VECTOR;
+import static com.litehed.hytalemodels.modelstuff.BlockyModelParser.ZERO;
+
+/**
+ * Streaming counterpart of {@link BlockyModelParser}
+ * Reads the model straight from a JsonReader without building a JsonElement tree and
+ * walks the node hierarchy with an explicit stack, so deep exports cannot overflow the call stack
+ */
+public class BlockyModelStreamParser {
+
+    /**
+     * Parse the nodes from a streaming JsonReader positioned at the root object
+     *
+     * @param reader the JsonReader of the BlockyModel
+     * @return the store holding the parsed nodes, parents always before their children
+     * @throws JsonParseException if required fields are missing or invalid
+     */
+    public static BlockyNodeStore parseNodes(JsonReader reader) throws JsonParseException {
+        try {
+            List<NodeFrame> roots = null;
+
+            reader.beginObject();
+            while (reader.hasNext()) {
+                if (reader.nextName().equals("nodes")) {
+                    roots = readNodeFrames(reader);
+                } else {
+                    reader.skipValue();
+                }
+            }
+            reader.endObject();
+
+            if (roots == null) {
+                throw new JsonParseException("BlockyModel file must contain a 'nodes' array");
+            }
+            return buildNodes(roots);
+        } catch (IOException | IllegalStateException | NumberFormatException e) {
+            throw new JsonParseException("Malformed BlockyModel file", e);
+        }
+    }
+
+    /**
+     * Read the node array and every nested children array without recursion
+     *
+     * @param reader the JsonReader positioned at the 'nodes' array
+     * @return the root frames, each holding its children
+     * @throws IOException if the input cannot be read
+     */
+    private static List<NodeFrame> readNodeFrames(JsonReader reader) throws IOException {
+        List<NodeFrame> roots = new ArrayList<>();
+        // Frames whose 'children' array is currently being read
+        Deque<NodeFrame> open = new ArrayDeque<>();
+
+        reader.beginArray();
+        while (true) {
+            if (reader.hasNext()) {
+                NodeFrame parent = open.peek();
+                NodeFrame frame = new NodeFrame(parent);
+                (parent == null ? roots : parent.children).add(frame);
+
+                reader.beginObject();
+                if (readFieldsUntilChildren(reader, frame)) {
+                    open.push(frame);
+                }
+                continue;
+            }
+
+            reader.endArray();
+            if (open.isEmpty()) {
+                return roots;
+            }
+
+            // The children array ended, continue with the remaining fields of its owner
+            if (!readFieldsUntilChildren(reader, open.peek())) {
+                open.pop();
+            }
+        }
+    }
+
+    /**
+     * Read node fields until either a 'children' array is entered or the node object ends
+     *
+     * @param reader the JsonReader positioned inside the node object
+     * @param frame  the frame to fill
+     * @return true if a children array was entered, false if the node object was closed
+     * @throws IOException if the input cannot be read
+     */
+    private static boolean readFieldsUntilChildren(JsonReader reader, NodeFrame frame) throws IOException {
+        while (reader.hasNext()) {
+            switch (reader.nextName()) {
+                case "id" -> frame.id = nextString(reader);
+                case "name" -> frame.name = nextString(reader);
+                case "position" -> frame.position = readVector(reader, 0);
+                case "orientation" -> frame.orientation = readQuaternion(reader);
+                case "shape" -> frame.shape = readShape(reader);
+                case "texture" -> frame.texture = nextString(reader);
+                case "children" -> {
+                    reader.beginArray();
+                    return true;
+                }
+                default -> reader.skipValue();
+            }
+        }
+        reader.endObject();
+
+        if (frame.name == null) {
+            throw new JsonParseException("Node missing required field: 'name'");
+        }
+        if (frame.id == null) {
+            throw new JsonParseException("Node missing required field: 'id'");
+        }
+        return false;
+    }
+
+    /**
+     * Write the frame hierarchy into a node store in depth-first order
+     *
+     * @param roots the root frames
+     * @return the node store
+     */
+    private static BlockyNodeStore buildNodes(List<NodeFrame> roots) {
+        BlockyNodeStore.Builder nodes = BlockyNodeStore.builder();
+        Deque<NodeFrame> pending = new ArrayDeque<>();
+        pushReversed(pending, roots);
+
+        while (!pending.isEmpty()) {
+            NodeFrame frame = pending.pop();
+            frame.index = nodes.addNode(
+                    frame.id,
+                    frame.name,
+                    frame.position != null ? frame.position : ZERO,
+                    frame.orientation != null ? frame.orientation : DEFAULT_ORIENTATION,
+                    frame.parent != null ? frame.parent.index : -1
+            );
+            nodes.setShape(frame.index, frame.shape);
+            nodes.setTexture(frame.index, frame.texture);
+            pushReversed(pending, frame.children);
+        }
+
+        return nodes.build();
+    }
+
+    private static void pushReversed(Deque<NodeFrame> stack, List<NodeFrame> frames) {
+        for (int i = frames.size() - 1; i >= 0; i--) {
+            stack.push(frames.get(i));
+        }
+    }
+
+    /**
+     * Read a shape object
+     *
+     * @param reader the JsonReader positioned at the shape object
+     * @return the parsed shape definition
+     * @throws IOException if the input cannot be read
+     */
+    private static BlockyNodeStore.ShapeDefinition readShape(JsonReader reader) throws IOException {
+        boolean visible = true;
+        boolean doubleSided = false;
+        Vector3f offset = null;
+        Vector3f stretch = null;
+        Vector3f size = null;
+        Map<Direction, BlockyModelGeometry.FaceTextureLayout> layoutMap = null;
+
+        reader.beginObject();
+        while (reader.hasNext()) {
+            switch (reader.nextName()) {
+                case "visible" -> visible = nextBoolean(reader);
+                case "doubleSided" -> doubleSided = nextBoolean(reader);
+                case "offset" -> offset = readVector(reader, 0);
+                case "stretch" -> stretch = readVector(reader, DEFAULT_STRETCH);
+                case "settings" -> size = readSettingsSize(reader);
+                case "textureLayout" -> {
+                    if (layoutMap == null) {
+                        layoutMap = new EnumMap<>(Direction.class);
+                    }
+                    readTextureLayout(reader, layoutMap);
+                }
+                default -> reader.skipValue();
+            }
+        }
+        reader.endObject();
+
+        if (!visible) {
+            return BlockyNodeStore.ShapeDefinition.invisible();
+        }
+
+        return new BlockyNodeStore.ShapeDefinition(
+                true,
+                doubleSided,
+                offset != null ? offset : ZERO,
+                stretch != null ? stretch : DEFAULT_STRETCH_VECTOR,
+                size != null ? size : DEFAULT_SIZE_VECTOR,
+                layoutMap != null ? layoutMap : Map.of()
+        );
+    }
+
+    /**
+     * Read the size vector out of a shape settings object
+     *
+     * @param reader the JsonReader positioned at the settings object
+     * @return the size vector, or null if none was given
+     * @throws IOException if the input cannot be read
+     */
+    private static Vector3f readSettingsSize(JsonReader reader) throws IOException {
+        Vector3f size = null;
+
+        reader.beginObject();
+        while (reader.hasNext()) {
+            if (reader.nextName().equals("size")) {
+                size = readVector(reader, DEFAULT_SIZE);
+            } else {
+                reader.skipValue();
+            }
+        }
+        reader.endObject();
+
+        return size;
+    }
+
+    /**
+     * Read a textureLayout object into the given map
+     *
+     * @param reader    the JsonReader positioned at the textureLayout object
+     * @param layoutMap the map to fill
+     * @throws IOException if the input cannot be read
+     */
+    private static void readTextureLayout(JsonReader reader,
+                                          Map<Direction, BlockyModelGeometry.FaceTextureLayout> layoutMap) throws IOException {
+        reader.beginObject();
+        while (reader.hasNext()) {
+            Direction dir = BlockyModelParser.parseDirectionName(reader.nextName());
+            if (dir != null) {
+                layoutMap.put(dir, readFaceLayout(reader));
+            } else {
+                reader.skipValue();
+            }
+        }
+        reader.endObject();
+    }
+
+    /**
+     * Read a single face texture layout
+     *
+     * @param reader the JsonReader positioned at the face layout object
+     * @return the shared FaceTextureLayout
+     * @throws IOException if the input cannot be read
+     */
+    private static BlockyModelGeometry.FaceTextureLayout readFaceLayout(JsonReader reader) throws IOException {
+        int offsetX = 0, offsetY = 0;
+        boolean mirrorX = false, mirrorY = false;
+        int angle = 0;
+
+        reader.beginObject();
+        while (reader.hasNext()) {
+            switch (reader.nextName()) {
+                case "offset" -> {
+                    reader.beginObject();
+                    while (reader.hasNext()) {
+                        switch (reader.nextName()) {
+                            case "x" -> offsetX = nextInt(reader);
+                            case "y" -> offsetY = nextInt(reader);
+                            default -> reader.skipValue();
+                        }
+                    }
+                    reader.endObject();
+                }
+                case "mirror" -> {
+                    reader.beginObject();
+                    while (reader.hasNext()) {
+                        switch (reader.nextName()) {
+                            case "x" -> mirrorX = nextBoolean(reader);
+                            case "y" -> mirrorY = nextBoolean(reader);
+                            default -> reader.skipValue();
+                        }
+                    }
+                    reader.endObject();
+                }
+                case "angle" -> {
+                    angle = nextInt(reader);
+                    BlockyModelParser.validateAngle(angle);
+                }
+                default -> reader.skipValue();
+            }
+        }
+        reader.endObject();
+
+        return BlockyModelGeometry.FaceTextureLayout.of(offsetX, offsetY, mirrorX, mirrorY, angle);
+    }
+
+    /**
+     * Read an {x, y, z} object, missing components use the default value
+     *
+     * @param reader       the JsonReader positioned at the vector object
+     * @param defaultValue the value for missing components
+     * @return the parsed vector
+     * @throws IOException if the input cannot be read
+     */
+    private static Vector3f readVector(JsonReader reader, float defaultValue) throws IOException {
+        Vector3f vec = new Vector3f(defaultValue);
+
+        reader.beginObject();
+        while (reader.hasNext()) {
+            switch (reader.nextName()) {
+                case "x" -> vec.x = (float) reader.nextDouble();
+                case "y" -> vec.y = (float) reader.nextDouble();
+                case "z" -> vec.z = (float) reader.nextDouble();
+                default -> reader.skipValue();
+            }
+        }
+        reader.endObject();
+
+        return vec;
+    }
+
+    /**
+     * Read an {x, y, z, w} object, missing components default to the identity rotation
+     *
+     * @param reader the JsonReader positioned at the quaternion object
+     * @return the parsed quaternion
+     * @throws IOException if the input cannot be read
+     */
+    private static Quaternionf readQuaternion(JsonReader reader) throws IOException {
+        Quaternionf quat = new Quaternionf();
+
+        reader.beginObject();
+        while (reader.hasNext()) {
+            switch (reader.nextName()) {
+                case "x" -> quat.x = (float) reader.nextDouble();
+                case "y" -> quat.y = (float) reader.nextDouble();
+                case "z" -> quat.z = (float) reader.nextDouble();
+                case "w" -> quat.w = (float) reader.nextDouble();
+                default -> reader.skipValue();
+            }
+        }
+        reader.endObject();
+
+        return quat;
+    }
+
+    // Utility methods matching the leniency of the JsonElement getters
+
+    private static String nextString(JsonReader reader) throws IOException {
+        return reader.nextString();
+    }
+
+    private static boolean nextBoolean(JsonReader reader) throws IOException {
+        return reader.peek() == JsonToken.STRING
+                ? Boolean.parseBoolean(reader.nextString())
+                : reader.nextBoolean();
+    }
+
+    private static int nextInt(JsonReader reader) throws IOException {
+        // Fractional numbers are truncated like JsonElement.getAsInt does
+        return (int) reader.nextDouble();
+    }
+
+    /**
+     * Partially read node, kept until the whole hierarchy is known so nodes can be
+     * created parent first regardless of where 'children' appears in the object
+     */
+    private static final class NodeFrame {
+        private final NodeFrame parent;
+        private final List<NodeFrame> children = new ArrayList<>(0);
+        private String id;
+        private String name;
+        private Vector3f position;
+        private Quaternionf orientation;
+        private BlockyNodeStore.ShapeDefinition shape;
+        private String texture;
+        private int index;
+
+        private NodeFrame(NodeFrame parent) {
+            this.parent = parent;
+        }
+    }
+}
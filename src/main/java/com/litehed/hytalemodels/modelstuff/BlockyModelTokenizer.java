@@ -3,31 +3,63 @@ package com.litehed.hytalemodels.modelstuff;
 import com.google.common.base.Charsets;
 import com.google.gson.JsonObject;
 import com.google.gson.JsonParser;
+import com.google.gson.stream.JsonReader;
 
 import java.io.BufferedReader;
+import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
 
 public class BlockyModelTokenizer implements AutoCloseable {
     private final BufferedReader lineReader;
-    private final JsonObject root;
+    private JsonObject root;
+    private JsonReader jsonReader;
 
     /**
      * Creates a new BlockyModelTokenizer that reads from the given InputStream
+     * The input is only consumed once either {@link #getRoot()} or {@link #getReader()} is called
      *
      * @param inputStream The InputStream to read from
      */
     public BlockyModelTokenizer(InputStream inputStream) {
         this.lineReader = new BufferedReader(new InputStreamReader(inputStream, Charsets.UTF_8));
-        this.root = JsonParser.parseReader(lineReader).getAsJsonObject();
     }
 
+    /**
+     * Gets the full JSON tree of the model, parsing it on first access
+     *
+     * @return the root JsonObject
+     * @throws IllegalStateException if the input was already consumed by {@link #getReader()}
+     */
     public JsonObject getRoot() {
+        if (root == null) {
+            if (jsonReader != null) {
+                throw new IllegalStateException("BlockyModelTokenizer input was already consumed by the streaming reader");
+            }
+            root = JsonParser.parseReader(lineReader).getAsJsonObject();
+        }
         return root;
     }
 
+    /**
+     * Gets a streaming JsonReader over the model input, no tree is built
+     *
+     * @return the JsonReader for the model input
+     * @throws IllegalStateException if the input was already consumed by {@link #getRoot()}
+     */
+    public JsonReader getReader() {
+        if (jsonReader == null) {
+            if (root != null) {
+                throw new IllegalStateException("BlockyModelTokenizer input was already consumed by the tree parser");
+            }
+            jsonReader = new JsonReader(lineReader);
+            jsonReader.setLenient(true);
+        }
+        return jsonReader;
+    }
+
     @Override
-    public void close() throws Exception {
+    public void close() throws IOException {
         this.lineReader.close();
     }
 }
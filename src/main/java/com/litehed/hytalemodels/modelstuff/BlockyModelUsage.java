@@ -0,0 +1,102 @@
+package com.litehed.hytalemodels.modelstuff;
+
+import com.litehed.hytalemodels.Config;
+import com.litehed.hytalemodels.HytaleModelLoader;
+import net.minecraft.resources.Identifier;
+import net.neoforged.fml.loading.FMLPaths;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Log of the Blocky models that were rendered, used to decide which models are baked during a reload in lazy mode
+ * The log of the previous session is read once, models in it are baked eagerly and every other model is deferred,
+ * see {@link DeferredBake}
+ */
+public final class BlockyModelUsage {
+
+    private static final String FILE_NAME = "blockymodel-usage.txt";
+
+    private static final Set<Identifier> USED = ConcurrentHashMap.newKeySet();
+    private static volatile Set<Identifier> previousSession;
+
+    private BlockyModelUsage() {
+    }
+
+    public static boolean isEnabled() {
+        return Config.LAZY_BAKE.getAsBoolean();
+    }
+
+    /**
+     * Check whether the bake of a model should wait until it is first rendered
+     *
+     * @param location the model location
+     * @return true if lazy baking is enabled and the model was not rendered in the previous session
+     */
+    public static boolean shouldDefer(Identifier location) {
+        return isEnabled() && !previousSession().contains(location);
+    }
+
+    static void markUsed(Identifier location) {
+        USED.add(location);
+    }
+
+    /**
+     * Write the models rendered in this session, an existing log is kept if nothing was rendered
+     */
+    public static void save() {
+        if (USED.isEmpty()) {
+            return;
+        }
+        List<String> lines = USED.stream().map(Identifier::toString).sorted().toList();
+        Path file = file();
+        try {
+            Files.write(file, lines, StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            HytaleModelLoader.LOGGER.warn("[BlockyModelUsage] Could not write model usage to {}", file, e);
+        }
+    }
+
+    private static Set<Identifier> previousSession() {
+        Set<Identifier> result = previousSession;
+        if (result == null) {
+            synchronized (BlockyModelUsage.class) {
+                result = previousSession;
+                if (result == null) {
+                    previousSession = result = load();
+                }
+            }
+        }
+        return result;
+    }
+
+    private static Set<Identifier> load() {
+        Path file = file();
+        Set<Identifier> locations = new HashSet<>();
+        if (!Files.isRegularFile(file)) {
+            return locations;
+        }
+        try {
+            for (String line : Files.readAllLines(file, StandardCharsets.UTF_8)) {
+                Identifier location = Identifier.tryParse(line.trim());
+                if (location != null) {
+                    locations.add(location);
+                }
+            }
+        } catch (IOException e) {
+            HytaleModelLoader.LOGGER.warn("[BlockyModelUsage] Could not read model usage from {}", file, e);
+        }
+        HytaleModelLoader.LOGGER.debug("[BlockyModelUsage] {} models were rendered in the previous session", locations.size());
+        return locations;
+    }
+
+    private static Path file() {
+        return FMLPaths.GAMEDIR.get().resolve(FILE_NAME);
+    }
+}
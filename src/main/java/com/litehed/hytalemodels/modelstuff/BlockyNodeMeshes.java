@@ -0,0 +1,168 @@
+package com.litehed.hytalemodels.modelstuff;
+
+import com.litehed.hytalemodels.animation.AnimationPoseTable;
+import com.mojang.blaze3d.vertex.VertexConsumer;
+import net.minecraft.client.renderer.texture.TextureAtlasSprite;
+import net.minecraft.world.phys.AABB;
+import org.joml.Matrix3f;
+import org.joml.Matrix4f;
+
+import java.util.Map;
+import java.util.WeakHashMap;
+
+/**
+ * Immutable node-local quads of a model for renderers that pose nodes at runtime
+ * Every node's quads are built once around the node origin and shared by all instances of the model,
+ * an instance only supplies the world transform of each node when emitting
+ */
+public final class BlockyNodeMeshes {
+
+    // Shared meshes per model, models are weak so replaced models drop their meshes
+    private static final Map<BlockyNodeStore, BlockyNodeMeshes> CACHE = new WeakHashMap<>();
+
+    private final int nodeCount;
+    private final int[] firstQuad;      // n + 1, the quads of node i are firstQuad[i] until firstQuad[i + 1]
+    private final float[] positions;    // 12 per quad, in block units around the node origin
+    private final float[] uvs;          // 8 per quad, in texture pixels
+    private final float[] normals;      // 3 per quad
+    private final float[] offsets;      // 3 per node, the shape offset in model units
+    private final float[] radii;        // 1 per node, half the diagonal of the shape in block units
+
+    private BlockyNodeMeshes(BlockyNodeStore store) {
+        BlockyMesh mesh = BlockyMesh.buildLocal(store);
+        this.nodeCount = store.size();
+        this.firstQuad = new int[nodeCount + 1];
+        this.positions = mesh.positions;
+        this.uvs = mesh.uvs;
+        this.normals = mesh.normals;
+        this.offsets = store.offsets.clone();
+        this.radii = new float[nodeCount];
+
+        for (int quad = 0; quad < mesh.quadCount; quad++) {
+            firstQuad[mesh.nodes[quad] + 1]++;
+        }
+        for (int node = 0; node < nodeCount; node++) {
+            firstQuad[node + 1] += firstQuad[node];
+
+            int n3 = node * 3;
+            float x = store.sizes[n3] * Math.abs(store.stretches[n3]);
+            float y = store.sizes[n3 + 1] * Math.abs(store.stretches[n3 + 1]);
+            float z = store.sizes[n3 + 2] * Math.abs(store.stretches[n3 + 2]);
+            radii[node] = (float) Math.sqrt(x * x + y * y + z * z) / 2 / TransformCalculator.POSITION_SCALE;
+        }
+    }
+
+    /**
+     * Get the shared meshes of a model, building them on first use
+     *
+     * @param store the node store of the model
+     * @return the shared node meshes
+     */
+    public static BlockyNodeMeshes get(BlockyNodeStore store) {
+        synchronized (CACHE) {
+            return CACHE.computeIfAbsent(store, BlockyNodeMeshes::new);
+        }
+    }
+
+    public int nodeCount() {
+        return nodeCount;
+    }
+
+    public boolean hasQuads(int node) {
+        return firstQuad[node + 1] > firstQuad[node];
+    }
+
+    /**
+     * Create the block space transform of a posed node, matching the transform of the static bake
+     *
+     * @param node              the node index
+     * @param worldPositions    the posed world positions, 3 floats per node
+     * @param worldOrientations the posed world orientations, 4 floats per node
+     * @param out               receives the node transform
+     * @return out
+     */
+    public Matrix4f nodeMatrix(int node, float[] worldPositions, float[] worldOrientations, Matrix4f out) {
+        int n3 = node * 3, n4 = node * 4;
+        float qx = worldOrientations[n4], qy = worldOrientations[n4 + 1], qz = worldOrientations[n4 + 2], qw = worldOrientations[n4 + 3];
+        float ox = offsets[n3], oy = offsets[n3 + 1], oz = offsets[n3 + 2];
+
+        // Rotate the shape offset by the node orientation: v + 2w(q x v) + 2q x (q x v)
+        float cx = qy * oz - qz * oy, cy = qz * ox - qx * oz, cz = qx * oy - qy * ox;
+        float rx = ox + 2 * (qw * cx + qy * cz - qz * cy);
+        float ry = oy + 2 * (qw * cy + qz * cx - qx * cz);
+        float rz = oz + 2 * (qw * cz + qx * cy - qy * cx);
+
+        return out.translationRotate(
+                (worldPositions[n3] + rx) / TransformCalculator.POSITION_SCALE + 0.5f,
+                (worldPositions[n3 + 1] + ry - TransformCalculator.POSITION_OFFSET_Y) / TransformCalculator.POSITION_SCALE + 0.5f,
+                (worldPositions[n3 + 2] + rz) / TransformCalculator.POSITION_SCALE + 0.5f,
+                qx, qy, qz, qw);
+    }
+
+    /**
+     * Emit the quads of a node with a precomputed transform
+     *
+     * @param node     the node index
+     * @param pose     the full vertex transform of the node
+     * @param normal   the full normal transform of the node
+     * @param consumer the vertex consumer
+     * @param sprite   the sprite the texture pixels are mapped into
+     * @param light    the packed light
+     * @param overlay  the packed overlay
+     */
+    public void emitNode(int node, Matrix4f pose, Matrix3f normal, VertexConsumer consumer, TextureAtlasSprite sprite,
+                         int light, int overlay) {
+        float u0 = sprite.getU0();
+        float v0 = sprite.getV0();
+        float uScale = (sprite.getU1() - u0) / sprite.contents().width();
+        float vScale = (sprite.getV1() - v0) / sprite.contents().height();
+
+        for (int quad = firstQuad[node]; quad < firstQuad[node + 1]; quad++) {
+            float nx = normals[quad * 3], ny = normals[quad * 3 + 1], nz = normals[quad * 3 + 2];
+            float tx = normal.m00() * nx + normal.m10() * ny + normal.m20() * nz;
+            float ty = normal.m01() * nx + normal.m11() * ny + normal.m21() * nz;
+            float tz = normal.m02() * nx + normal.m12() * ny + normal.m22() * nz;
+            float invLength = 1.0f / (float) Math.sqrt(tx * tx + ty * ty + tz * tz);
+
+            for (int v = 0; v < 4; v++) {
+                int p = quad * 12 + v * 3, t = quad * 8 + v * 2;
+                consumer.addVertex(pose, positions[p], positions[p + 1], positions[p + 2])
+                        .setColor(-1)
+                        .setUv(u0 + uvs[t] * uScale, v0 + uvs[t + 1] * vScale)
+                        .setOverlay(overlay)
+                        .setLight(light)
+                        .setNormal(tx * invLength, ty * invLength, tz * invLength);
+            }
+        }
+    }
+
+    /**
+     * Calculate bounds that contain every node at every frame of a clip, in block space
+     * Nodes are treated as spheres so the bounds hold for any orientation and any horizontal facing
+     *
+     * @param table the pose table of the clip
+     * @return the bounds relative to the block origin
+     */
+    public AABB bounds(AnimationPoseTable table) {
+        float[] worldPositions = new float[nodeCount * 3];
+        float[] worldOrientations = new float[nodeCount * 4];
+        Matrix4f matrix = new Matrix4f();
+
+        float horizontal = 0.5f, minY = 0, maxY = 1;
+        for (int frame = 0; frame < table.frameCount(); frame++) {
+            table.sample(frame, worldPositions, worldOrientations);
+            for (int node = 0; node < nodeCount; node++) {
+                if (!hasQuads(node)) {
+                    continue;
+                }
+                nodeMatrix(node, worldPositions, worldOrientations, matrix);
+                float radius = radii[node];
+                horizontal = Math.max(horizontal, Math.abs(matrix.m30() - 0.5f) + radius);
+                horizontal = Math.max(horizontal, Math.abs(matrix.m32() - 0.5f) + radius);
+                minY = Math.min(minY, matrix.m31() - radius);
+                maxY = Math.max(maxY, matrix.m31() + radius);
+            }
+        }
+        return new AABB(0.5 - horizontal, minY, 0.5 - horizontal, 0.5 + horizontal, maxY, 0.5 + horizontal);
+    }
+}
@@ -0,0 +1,444 @@
+package com.litehed.hytalemodels.modelstuff;
+
+import com.google.common.collect.Interner;
+import com.google.common.collect.Interners;
+import com.litehed.hytalemodels.profiling.MemoryEstimator;
+import com.mojang.math.Transformation;
+import net.minecraft.core.Direction;
+import org.joml.Quaternionf;
+import org.joml.Quaternionfc;
+import org.joml.Vector3f;
+import org.joml.Vector3fc;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Structure-of-arrays storage for the nodes of a parsed model
+ * Every per-node value lives in a primitive array indexed by node ordinal, nodes are ordered parent before child
+ * {@link BlockyModelGeometry.BlockyNode} and {@link BlockyModelGeometry.BlockyShape} are lightweight views over it
+ */
+public final class BlockyNodeStore {
+
+    static final int FLAG_HAS_SHAPE = 1;
+    static final int FLAG_VISIBLE = 1 << 1;
+    static final int FLAG_DOUBLE_SIDED = 1 << 2;
+
+    // Set on packed face layouts that are present, the layout itself uses the low 30 bits
+    static final int FACE_PRESENT = 1 << 30;
+    // Set with FACE_PRESENT on faces whose layout cannot be packed, the low bits then index unpackedLayouts
+    static final int FACE_UNPACKED = 1 << 31;
+    static final int FACES = 6;
+
+    // Node ids, names and texture slots repeat across models ("cube", "1", "body"), every store shares one copy
+    private static final Interner<String> STRINGS = Interners.newWeakInterner();
+
+    final int count;
+    final String[] ids;
+    final String[] names;
+    final String[] textures;        // texture slot of the node, null to inherit
+    final int[] parents;
+    final byte[] flags;
+
+    // Local data
+    final float[] positions;        // 3 per node
+    final float[] orientations;     // 4 per node
+    final float[] offsets;          // 3 per node, zero unless the node has a visible shape
+    final float[] stretches;        // 3 per node
+    final float[] sizes;            // 3 per node, unstretched
+    final int[] faceLayouts;        // 6 per node, packed FaceTextureLayout | FACE_PRESENT
+    final BlockyModelGeometry.FaceTextureLayout[] unpackedLayouts;  // layouts with offsets beyond the packed range, usually empty
+
+    // Precomputed world transforms
+    final float[] worldPositions;   // 3 per node
+    final float[] worldOrientations; // 4 per node
+    private volatile float[] bounds;  // min and max corner of every visible shape in block space, computed on demand
+
+    private BlockyNodeStore(Builder builder) {
+        this.count = builder.count;
+        this.ids = Arrays.copyOf(builder.ids, count);
+        this.names = Arrays.copyOf(builder.names, count);
+        this.textures = Arrays.copyOf(builder.textures, count);
+        this.parents = Arrays.copyOf(builder.parents, count);
+        this.flags = Arrays.copyOf(builder.flags, count);
+        this.positions = Arrays.copyOf(builder.positions, count * 3);
+        this.orientations = Arrays.copyOf(builder.orientations, count * 4);
+        this.offsets = Arrays.copyOf(builder.offsets, count * 3);
+        this.stretches = Arrays.copyOf(builder.stretches, count * 3);
+        this.sizes = Arrays.copyOf(builder.sizes, count * 3);
+        this.faceLayouts = Arrays.copyOf(builder.faceLayouts, count * FACES);
+        this.unpackedLayouts = builder.unpackedLayouts.toArray(new BlockyModelGeometry.FaceTextureLayout[0]);
+
+        if (builder.worldPositions != null) {
+            this.worldPositions = builder.worldPositions;
+            this.worldOrientations = builder.worldOrientations;
+            this.bounds = builder.bounds;
+        } else {
+            this.worldPositions = new float[count * 3];
+            this.worldOrientations = new float[count * 4];
+            TransformCalculator.calculateWorldTransforms(parents, positions, orientations, offsets,
+                    worldPositions, worldOrientations);
+        }
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public int size() {
+        return count;
+    }
+
+    /**
+     * Get a view of the node at the given index
+     *
+     * @param index the node index
+     * @return the node view
+     */
+    public BlockyModelGeometry.BlockyNode node(int index) {
+        return new BlockyModelGeometry.BlockyNode(this, index);
+    }
+
+    /**
+     * Get all nodes as a list of views, parents before children
+     *
+     * @return an unmodifiable list of node views
+     */
+    public List<BlockyModelGeometry.BlockyNode> nodes() {
+        return new AbstractList<>() {
+            @Override
+            public BlockyModelGeometry.BlockyNode get(int index) {
+                return node(index);
+            }
+
+            @Override
+            public int size() {
+                return count;
+            }
+        };
+    }
+
+    /**
+     * Find a node by id, falling back to its name
+     *
+     * @param key the node id or name
+     * @return the node index, or -1 if no node matches
+     */
+    public int findNode(String key) {
+        for (int i = 0; i < count; i++) {
+            if (ids[i].equals(key)) {
+                return i;
+            }
+        }
+        for (int i = 0; i < count; i++) {
+            if (names[i].equals(key)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Copy the local bind transforms of all nodes
+     *
+     * @param localPositions    output for the local positions, 3 floats per node
+     * @param localOrientations output for the local orientations, 4 floats per node
+     */
+    public void copyLocalTransforms(float[] localPositions, float[] localOrientations) {
+        System.arraycopy(positions, 0, localPositions, 0, count * 3);
+        System.arraycopy(orientations, 0, localOrientations, 0, count * 4);
+    }
+
+    /**
+     * Calculate world transforms for a posed copy of the local transforms, see {@link TransformCalculator#calculateWorldTransforms}
+     *
+     * @param localPositions    the posed local positions, 3 floats per node
+     * @param localOrientations the posed local orientations, 4 floats per node
+     * @param worldPositions    output for the world positions, 3 floats per node
+     * @param worldOrientations output for the world orientations, 4 floats per node
+     */
+    public void calculateWorldTransforms(float[] localPositions, float[] localOrientations,
+                                         float[] worldPositions, float[] worldOrientations) {
+        TransformCalculator.calculateWorldTransforms(parents, localPositions, localOrientations, offsets,
+                worldPositions, worldOrientations);
+    }
+
+    /**
+     * Get the bounds of every visible shape with node transforms applied, in block space like baked quads
+     *
+     * @return the min x, y, z and max x, y, z corner, all zero for a model without visible shapes
+     */
+    public float[] bounds() {
+        float[] result = bounds;
+        if (result == null) {
+            bounds = result = BlockyMesh.build(this).bounds();
+        }
+        return result.clone();
+    }
+
+    /**
+     * Estimate the heap held by the parsed node and shape data
+     *
+     * @return the estimated size in bytes
+     */
+    public long estimateBytes() {
+        long bytes = MemoryEstimator.array(count, MemoryEstimator.REFERENCE) * 3
+                + MemoryEstimator.array(count, 4)
+                + MemoryEstimator.array(count, 1)
+                + MemoryEstimator.array(count * 3, 4) * 6
+                + MemoryEstimator.array(count * 4, 4) * 2
+                + MemoryEstimator.array(count * FACES, 4)
+                + MemoryEstimator.array(unpackedLayouts.length, MemoryEstimator.REFERENCE);
+        for (int i = 0; i < count; i++) {
+            bytes += MemoryEstimator.string(ids[i]) + MemoryEstimator.string(names[i]) + MemoryEstimator.string(textures[i]);
+        }
+        return bytes;
+    }
+
+    public int parentIndex(int index) {
+        return parents[index];
+    }
+
+    /**
+     * Get the texture slot declared on a node
+     *
+     * @param index the node index
+     * @return the slot name, or null if the node inherits the slot of its parent
+     */
+    public String texture(int index) {
+        return textures[index];
+    }
+
+    public boolean hasShape(int index) {
+        return (flags[index] & FLAG_HAS_SHAPE) != 0;
+    }
+
+    public boolean hasVisibleShape(int index) {
+        return (flags[index] & (FLAG_HAS_SHAPE | FLAG_VISIBLE)) == (FLAG_HAS_SHAPE | FLAG_VISIBLE);
+    }
+
+    public boolean isDoubleSided(int index) {
+        return (flags[index] & FLAG_DOUBLE_SIDED) != 0;
+    }
+
+    /**
+     * Get the packed texture layout of a face
+     *
+     * @param index the node index
+     * @param face  the face
+     * @return the packed layout bits with {@link #FACE_PRESENT} set, or 0 if the face has no layout
+     */
+    public int packedLayout(int index, Direction face) {
+        return faceLayouts[index * FACES + face.ordinal()];
+    }
+
+    /**
+     * Get the texture layout of a face
+     *
+     * @param index the node index
+     * @param face  the face
+     * @return the layout, or null if the face has no layout
+     */
+    public BlockyModelGeometry.FaceTextureLayout layout(int index, Direction face) {
+        int bits = packedLayout(index, face);
+        if (bits == 0) {
+            return null;
+        }
+        if ((bits & FACE_UNPACKED) != 0) {
+            return unpackedLayouts[bits & ~(FACE_UNPACKED | FACE_PRESENT)];
+        }
+        return BlockyModelGeometry.FaceTextureLayout.unpack(bits);
+    }
+
+    /**
+     * Create the transform that places the shape of a node, without the model transform
+     *
+     * @param index the node index
+     * @return the node transformation
+     */
+    public Transformation nodeTransform(int index) {
+        Vector3f worldPosition = new Vector3f(worldPositions[index * 3], worldPositions[index * 3 + 1],
+                worldPositions[index * 3 + 2]);
+        Vector3f offset = new Vector3f(offsets[index * 3], offsets[index * 3 + 1], offsets[index * 3 + 2]);
+        Quaternionf worldOrientation = new Quaternionf(worldOrientations[index * 4], worldOrientations[index * 4 + 1],
+                worldOrientations[index * 4 + 2], worldOrientations[index * 4 + 3]);
+        return TransformCalculator.createNodeTransform(worldPosition, offset, worldOrientation);
+    }
+
+    /**
+     * Appends nodes one by one, parents must be added before their children
+     */
+    public static final class Builder {
+        private int count;
+        private String[] ids = new String[16];
+        private String[] names = new String[16];
+        private String[] textures = new String[16];
+        private int[] parents = new int[16];
+        private byte[] flags = new byte[16];
+        private float[] positions = new float[16 * 3];
+        private float[] orientations = new float[16 * 4];
+        private float[] offsets = new float[16 * 3];
+        private float[] stretches = new float[16 * 3];
+        private float[] sizes = new float[16 * 3];
+        private int[] faceLayouts = new int[16 * FACES];
+        private final List<BlockyModelGeometry.FaceTextureLayout> unpackedLayouts = new ArrayList<>();
+        private float[] worldPositions;
+        private float[] worldOrientations;
+        private float[] bounds;
+
+        private Builder() {
+        }
+
+        /**
+         * Append a node
+         *
+         * @param id          the node id
+         * @param name        the node name
+         * @param position    the local position
+         * @param orientation the local orientation
+         * @param parent      the index of the parent node, or -1 for a root
+         * @return the index of the new node
+         * @throws IllegalArgumentException if the parent has not been added yet
+         */
+        public int addNode(String id, String name, Vector3fc position, Quaternionfc orientation, int parent) {
+            if (parent >= count) {
+                throw new IllegalArgumentException("BlockyModel nodes must be ordered parent before child: " + id);
+            }
+            ensureCapacity(count + 1);
+
+            int index = count++;
+            ids[index] = intern(id);
+            names[index] = intern(name);
+            parents[index] = parent;
+            set3(positions, index, position);
+            orientations[index * 4] = orientation.x();
+            orientations[index * 4 + 1] = orientation.y();
+            orientations[index * 4 + 2] = orientation.z();
+            orientations[index * 4 + 3] = orientation.w();
+            stretches[index * 3] = stretches[index * 3 + 1] = stretches[index * 3 + 2] = BlockyModelParser.DEFAULT_STRETCH;
+            sizes[index * 3] = sizes[index * 3 + 1] = sizes[index * 3 + 2] = BlockyModelParser.DEFAULT_SIZE;
+            return index;
+        }
+
+        /**
+         * Attach a shape to a node
+         *
+         * @param index the node index
+         * @param shape the parsed shape, null for none
+         */
+        public void setShape(int index, ShapeDefinition shape) {
+            if (shape == null) {
+                return;
+            }
+
+            flags[index] = (byte) (FLAG_HAS_SHAPE
+                    | (shape.visible() ? FLAG_VISIBLE : 0)
+                    | (shape.doubleSided() ? FLAG_DOUBLE_SIDED : 0));
+            if (!shape.visible()) {
+                return;
+            }
+
+            set3(offsets, index, shape.offset());
+            set3(stretches, index, shape.stretch());
+            set3(sizes, index, shape.size());
+            for (Map.Entry<Direction, BlockyModelGeometry.FaceTextureLayout> entry : shape.textureLayout().entrySet()) {
+                BlockyModelGeometry.FaceTextureLayout layout = entry.getValue();
+                int bits;
+                if (layout.isPackable()) {
+                    bits = layout.pack() | FACE_PRESENT;
+                } else {
+                    bits = unpackedLayouts.size() | FACE_PRESENT | FACE_UNPACKED;
+                    unpackedLayouts.add(layout);
+                }
+                faceLayouts[index * FACES + entry.getKey().ordinal()] = bits;
+            }
+        }
+
+        /**
+         * Set the texture slot of a node, children without a slot of their own inherit it
+         *
+         * @param index the node index
+         * @param slot  the texture slot name, null to inherit
+         */
+        public void setTexture(int index, String slot) {
+            textures[index] = intern(slot);
+        }
+
+        /**
+         * Use world transforms and bounds computed ahead of time instead of computing them on build
+         *
+         * @param worldPositions    the world positions, 3 floats per node
+         * @param worldOrientations the world orientations, 4 floats per node
+         * @param bounds            the min and max corner of every visible shape in block space
+         * @throws IllegalArgumentException if the arrays do not match the node count
+         */
+        public void setPrecomputed(float[] worldPositions, float[] worldOrientations, float[] bounds) {
+            if (worldPositions.length != count * 3 || worldOrientations.length != count * 4 || bounds.length != 6) {
+                throw new IllegalArgumentException("Precomputed transforms do not match the node count");
+            }
+            this.worldPositions = worldPositions;
+            this.worldOrientations = worldOrientations;
+            this.bounds = bounds;
+        }
+
+        public int size() {
+            return count;
+        }
+
+        public BlockyNodeStore build() {
+            return new BlockyNodeStore(this);
+        }
+
+        private void ensureCapacity(int required) {
+            if (required <= ids.length) {
+                return;
+            }
+            int capacity = Math.max(required, ids.length * 2);
+            ids = Arrays.copyOf(ids, capacity);
+            names = Arrays.copyOf(names, capacity);
+            textures = Arrays.copyOf(textures, capacity);
+            parents = Arrays.copyOf(parents, capacity);
+            flags = Arrays.copyOf(flags, capacity);
+            positions = Arrays.copyOf(positions, capacity * 3);
+            orientations = Arrays.copyOf(orientations, capacity * 4);
+            offsets = Arrays.copyOf(offsets, capacity * 3);
+            stretches = Arrays.copyOf(stretches, capacity * 3);
+            sizes = Arrays.copyOf(sizes, capacity * 3);
+            faceLayouts = Arrays.copyOf(faceLayouts, capacity * FACES);
+        }
+
+        private static void set3(float[] array, int index, Vector3fc value) {
+            array[index * 3] = value.x();
+            array[index * 3 + 1] = value.y();
+            array[index * 3 + 2] = value.z();
+        }
+
+        private static String intern(String value) {
+            return value != null ? STRINGS.intern(value) : null;
+        }
+    }
+
+    /**
+     * Parse-time description of a shape, only used to fill the store
+     *
+     * @param visible       whether the shape is rendered
+     * @param doubleSided   whether back faces are rendered
+     * @param offset        the shape offset
+     * @param stretch       the shape stretch
+     * @param size          the unstretched size
+     * @param textureLayout the texture layout per face
+     */
+    public record ShapeDefinition(boolean visible, boolean doubleSided, Vector3fc offset, Vector3fc stretch,
+                                  Vector3fc size, Map<Direction, BlockyModelGeometry.FaceTextureLayout> textureLayout) {
+
+        private static final ShapeDefinition INVISIBLE = new ShapeDefinition(false, false, BlockyModelParser.ZERO,
+                BlockyModelParser.DEFAULT_STRETCH_VECTOR, BlockyModelParser.DEFAULT_SIZE_VECTOR, Map.of());
+
+        public static ShapeDefinition invisible() {
+            return INVISIBLE;
+        }
+    }
+}
@@ -0,0 +1,232 @@
+package com.litehed.hytalemodels.modelstuff;
+
+import com.litehed.hytalemodels.HytaleModelLoader;
+import com.litehed.hytalemodels.mixin.QuadCollectionAccessor;
+import com.litehed.hytalemodels.profiling.BlockyModelStats;
+import com.mojang.blaze3d.systems.RenderSystem;
+import net.minecraft.client.Minecraft;
+import net.minecraft.client.resources.model.QuadCollection;
+import net.minecraft.core.SectionPos;
+import net.minecraft.resources.Identifier;
+import net.minecraft.util.Util;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.function.Supplier;
+
+/**
+ * A bake attached to a QuadCollection that runs when a chunk or block entity renderer first asks for its quads
+ * With lazy baking enabled, models that were not rendered in the previous session get an empty placeholder
+ * during the reload instead of their quads, see {@link BlockyModelUsage}
+ * Chunk sections compiled on worker threads bake the quads right away, the render thread only starts the bake
+ * on the background executor and keeps the placeholder empty until it is done
+ * Sections the render thread compiled with the empty placeholder are rebuilt once the quads are ready
+ * Requests made while the reload that created the bake is still running come from item models copying their quads,
+ * those bake right away and are not counted as a use
+ * Eagerly baked models get a bake that is already done, it only records the first use of the model
+ */
+public final class DeferredBake {
+
+    // The chunk section the current thread is compiling, set by a mixin
+    private static final ThreadLocal<SectionPos> COMPILING_SECTION = new ThreadLocal<>();
+
+    private final Identifier location;
+    private final int generation;
+    private final Supplier<QuadCollection> bake;  // null for bakes that are already done
+    private volatile CompletableFuture<QuadCollection> running;
+    private volatile QuadCollection quads;
+    private volatile boolean used;
+    // Sections compiled with the empty placeholder while the bake runs, guarded by this
+    private Set<SectionPos> waitingSections;
+
+    private DeferredBake(Identifier location, int generation, Supplier<QuadCollection> bake, QuadCollection quads) {
+        this.location = location;
+        this.generation = generation;
+        this.bake = bake;
+        this.quads = quads;
+    }
+
+    /**
+     * Mark the start of a chunk section compile on the current thread
+     *
+     * @param section the section being compiled
+     */
+    public static void beginSection(SectionPos section) {
+        COMPILING_SECTION.set(section);
+    }
+
+    /**
+     * Mark the end of a chunk section compile on the current thread
+     */
+    public static void endSection() {
+        COMPILING_SECTION.remove();
+    }
+
+    /**
+     * Create a placeholder that bakes its quads on first use
+     *
+     * @param location   the model location, recorded as used when the quads are requested
+     * @param generation the reload generation the model is baked in
+     * @param bake       the real bake
+     * @return the placeholder collection
+     */
+    public static QuadCollection defer(Identifier location, int generation, Supplier<QuadCollection> bake) {
+        QuadCollection placeholder = QuadCollectionAccessor.hytalemodelloader$create(
+                List.of(), List.of(), List.of(), List.of(), List.of(), List.of(), List.of(), List.of());
+        ((Target) placeholder).hytalemodelloader$setDeferredBake(new DeferredBake(location, generation, bake, null));
+        BlockyModelStats.DEFERRED_BAKES.increment();
+        return placeholder;
+    }
+
+    /**
+     * Record the first use of already baked quads while usage is being tracked
+     *
+     * @param location   the model location
+     * @param generation the reload generation the model is baked in
+     * @param quads      the baked quads
+     * @return quads
+     */
+    public static QuadCollection track(Identifier location, int generation, QuadCollection quads) {
+        // Empty results may be the shared QuadCollection.EMPTY, which must not carry a model
+        if (BlockyModelUsage.isEnabled() && !quads.getAll().isEmpty()) {
+            ((Target) quads).hytalemodelloader$setDeferredBake(new DeferredBake(location, generation, null, quads));
+        }
+        return quads;
+    }
+
+    /**
+     * Check whether a collection is a placeholder that has not been baked yet, without baking it
+     *
+     * @param quads the collection
+     * @return true if the quads are still pending
+     */
+    public static boolean isPending(QuadCollection quads) {
+        DeferredBake bake = ((Target) quads).hytalemodelloader$getDeferredBake();
+        return bake != null && bake.quads == null;
+    }
+
+    /**
+     * Get the baked quads, baking them on the calling thread unless it is the render thread
+     *
+     * @return the baked quads, or null while they are not ready and the empty placeholder should be used
+     */
+    public QuadCollection get() {
+        if (BlockyModelLoader.INSTANCE.isBaking(generation)) {
+            // Item models copy the quads while the reload that made them is baking, a placeholder would stay empty in them
+            return bake != null ? bakeNow() : null;
+        }
+
+        if (!used) {
+            used = true;
+            BlockyModelUsage.markUsed(location);
+        }
+        QuadCollection result = quads;
+        if (result != null || bake == null) {
+            return result;
+        }
+        return RenderSystem.isOnRenderThread() ? bakeInBackground() : bakeNow();
+    }
+
+    /**
+     * Bake on the calling thread, or wait for a bake that is already running
+     *
+     * @return the baked quads, or null if the bake failed
+     */
+    private QuadCollection bakeNow() {
+        try {
+            return start(Runnable::run).join();
+        } catch (RuntimeException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Start the bake on the background executor, remembering the section being compiled so it can be rebuilt
+     *
+     * @return the baked quads if they became ready meanwhile, otherwise null
+     */
+    private synchronized QuadCollection bakeInBackground() {
+        if (quads != null) {
+            return quads;
+        }
+        SectionPos section = COMPILING_SECTION.get();
+        if (section != null) {
+            if (waitingSections == null) {
+                waitingSections = new HashSet<>();
+            }
+            waitingSections.add(section);
+        }
+        start(Util.backgroundExecutor());
+        return null;
+    }
+
+    /**
+     * Start the bake once, callers that find it running share its future
+     *
+     * @param executor the executor to bake on
+     * @return the running or finished bake
+     */
+    private CompletableFuture<QuadCollection> start(Executor executor) {
+        CompletableFuture<QuadCollection> future;
+        synchronized (this) {
+            if (running != null) {
+                return running;
+            }
+            running = future = new CompletableFuture<>();
+        }
+        executor.execute(() -> run(future));
+        return future;
+    }
+
+    private void run(CompletableFuture<QuadCollection> future) {
+        QuadCollection result;
+        try {
+            result = bake.get();
+        } catch (RuntimeException e) {
+            HytaleModelLoader.LOGGER.error("[DeferredBake] Could not bake model {}", location, e);
+            future.completeExceptionally(e);
+            return;
+        }
+
+        Set<SectionPos> sections;
+        synchronized (this) {
+            quads = result;
+            sections = waitingSections;
+            waitingSections = null;
+        }
+        BlockyModelStats.DEFERRED_BAKES_RESOLVED.increment();
+        future.complete(result);
+        if (sections != null) {
+            rebuildSections(sections);
+        }
+    }
+
+    /**
+     * Rebuild the chunk sections that were compiled without the quads, on the main thread
+     *
+     * @param sections the sections to rebuild
+     */
+    private static void rebuildSections(Set<SectionPos> sections) {
+        Minecraft minecraft = Minecraft.getInstance();
+        minecraft.execute(() -> {
+            if (minecraft.level == null) {
+                return;
+            }
+            for (SectionPos section : sections) {
+                minecraft.levelRenderer.setSectionDirty(section.x(), section.y(), section.z());
+            }
+        });
+    }
+
+    /**
+     * Implemented on QuadCollection by a mixin
+     */
+    public interface Target {
+        DeferredBake hytalemodelloader$getDeferredBake();
+
+        void hytalemodelloader$setDeferredBake(DeferredBake bake);
+    }
+}
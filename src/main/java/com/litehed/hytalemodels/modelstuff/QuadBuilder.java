@@ -3,6 +3,7 @@ package com.litehed.hytalemodels.modelstuff;
 import com.mojang.math.Transformation;
 import net.minecraft.client.renderer.block.model.BakedQuad;
 import net.minecraft.client.renderer.texture.TextureAtlasSprite;
+import net.minecraft.client.resources.model.QuadCollection;
 import net.minecraft.core.Direction;
 import net.neoforged.neoforge.client.model.pipeline.QuadBakingVertexConsumer;
 import org.apache.commons.lang3.tuple.Pair;
@@ -19,6 +20,11 @@ public class QuadBuilder {
 
     public static final boolean DEBUG_BORDERS = false;
     private static final float BORDER_THICKNESS = 0.002f;
+    // Tolerance for a transformed face to count as lying on the block boundary
+    private static final float CULL_EPSILON = 1.0e-4f;
+
+    // Scratch buffers for the allocation-free bake path, baking runs on several worker threads at once
+    private static final ThreadLocal<Scratch> SCRATCH = ThreadLocal.withInitial(Scratch::new);
 
     /**
      * Create a single quad for a given face
@@ -41,15 +47,13 @@ public class QuadBuilder {
             Vector3f size,
             Transformation transform) {
 
-        QuadBakingVertexConsumer baker = setupQuadBaker(face, sprite);
-
-        float[][] uvCoords = calculateUVCoordinates(face, texLayout, size, sprite);
-        Vector3f[] vertices = getFaceVertices(face, min, max);
-
-        bakeVertices(baker, vertices, uvCoords, face, transform);
+        Scratch scratch = SCRATCH.get();
+        writeFaceVertices(face, min.x, min.y, min.z, max.x, max.y, max.z, scratch.positions);
+        writeFaceUVs(face, texLayout, size.x, size.y, size.z, scratch.uvs);
+        transformQuad(scratch, scratch.positions, 0, face.getStepX(), face.getStepY(), face.getStepZ(), transform, false);
 
-        Direction cullFace = calculateCullFace(face, min, max);
-        return Pair.of(baker.bakeQuad(), cullFace);
+        Direction cullFace = calculateCullFace(scratch.transformed, scratch.normal);
+        return Pair.of(emitQuad(scratch, scratch.uvs, 0, sprite, false), cullFace);
     }
 
 
@@ -74,15 +78,318 @@ public class QuadBuilder {
             Vector3f size,
             Transformation transform) {
 
-        QuadBakingVertexConsumer baker = setupQuadBaker(face, sprite);
+        Scratch scratch = SCRATCH.get();
+        writeFaceVertices(face, min.x, min.y, min.z, max.x, max.y, max.z, scratch.positions);
+        writeFaceUVs(face, texLayout, size.x, size.y, size.z, scratch.uvs);
 
-        float[][] uvCoords = calculateUVCoordinates(face, texLayout, size, sprite);
-        Vector3f[] vertices = getFaceVertices(face, min, max);
-
-        // Bake in reverse order with flipped normals
-        bakeVerticesReversed(baker, vertices, uvCoords, face, transform);
         // No cull, it breaks the backface
-        return Pair.of(baker.bakeQuad(), null);
+        return Pair.of(bakeQuad(scratch.positions, scratch.uvs, 0,
+                face.getStepX(), face.getStepY(), face.getStepZ(), sprite, transform, true), null);
+    }
+
+    /**
+     * Bake a single face of a box without intermediate objects
+     * Vertices and UVs are written to per-thread scratch buffers and the quad is emitted through
+     * a reused vertex consumer, so the only allocation is the BakedQuad itself
+     *
+     * @param face      the Direction of the face
+     * @param halfX     the half size of the box on the x axis, in blocks
+     * @param halfY     the half size of the box on the y axis, in blocks
+     * @param halfZ     the half size of the box on the z axis, in blocks
+     * @param sizeX     the unstretched size of the box on the x axis, in texture pixels
+     * @param sizeY     the unstretched size of the box on the y axis, in texture pixels
+     * @param sizeZ     the unstretched size of the box on the z axis, in texture pixels
+     * @param sprite    the TextureAtlasSprite to use for the quad
+     * @param texLayout the texture layout for this face
+     * @param transform the transformation to apply to the quad
+     * @param reversed  whether to emit the back face instead
+     * @return the baked quad
+     */
+    public static BakedQuad bakeFace(
+            Direction face,
+            float halfX, float halfY, float halfZ,
+            float sizeX, float sizeY, float sizeZ,
+            TextureAtlasSprite sprite,
+            BlockyModelGeometry.FaceTextureLayout texLayout,
+            Transformation transform,
+            boolean reversed) {
+
+        Scratch scratch = SCRATCH.get();
+        writeFaceVertices(face, -halfX, -halfY, -halfZ, halfX, halfY, halfZ, scratch.positions);
+        writeFaceUVs(face, texLayout, sizeX, sizeY, sizeZ, scratch.uvs);
+        return bakeQuad(scratch.positions, scratch.uvs, 0,
+                face.getStepX(), face.getStepY(), face.getStepZ(), sprite, transform, reversed);
+    }
+
+    /**
+     * Bake a quad from flat vertex and UV arrays and add it to a QuadCollection builder
+     * Quads that end up flat on the block boundary go into the culled bucket of their side
+     *
+     * @param builder   the QuadCollection.Builder to add the quad to
+     * @param positions 12 floats per quad, the x, y, z of each of the 4 vertices
+     * @param uvs       8 floats per quad, the u, v of each of the 4 vertices in texture pixels
+     * @param quad      the index of the quad in the position and UV arrays
+     * @param normalX   the x component of the untransformed face normal
+     * @param normalY   the y component of the untransformed face normal
+     * @param normalZ   the z component of the untransformed face normal
+     * @param sprite    the TextureAtlasSprite the UVs are mapped into
+     * @param transform the transformation to apply to the quad
+     */
+    public static void addQuad(
+            QuadCollection.Builder builder,
+            float[] positions,
+            float[] uvs,
+            int quad,
+            float normalX, float normalY, float normalZ,
+            TextureAtlasSprite sprite,
+            Transformation transform) {
+
+        Scratch scratch = SCRATCH.get();
+        transformQuad(scratch, positions, quad, normalX, normalY, normalZ, transform, false);
+
+        Direction cullFace = calculateCullFace(scratch.transformed, scratch.normal);
+        BakedQuad baked = emitQuad(scratch, uvs, quad, sprite, false);
+        if (cullFace == null) {
+            builder.addUnculledFace(baked);
+        } else {
+            builder.addCulledFace(cullFace, baked);
+        }
+    }
+
+    /**
+     * Bake a quad from flat vertex and UV arrays
+     * The normal is transformed once for the whole face, vertices go straight into the reused consumer
+     *
+     * @param positions 12 floats per quad, the x, y, z of each of the 4 vertices
+     * @param uvs       8 floats per quad, the u, v of each of the 4 vertices in texture pixels
+     * @param quad      the index of the quad in the position and UV arrays
+     * @param normalX   the x component of the untransformed face normal
+     * @param normalY   the y component of the untransformed face normal
+     * @param normalZ   the z component of the untransformed face normal
+     * @param sprite    the TextureAtlasSprite the UVs are mapped into
+     * @param transform the transformation to apply to the quad
+     * @param reversed  whether to emit the vertices in reverse order with a flipped normal
+     * @return the baked quad
+     */
+    public static BakedQuad bakeQuad(
+            float[] positions,
+            float[] uvs,
+            int quad,
+            float normalX, float normalY, float normalZ,
+            TextureAtlasSprite sprite,
+            Transformation transform,
+            boolean reversed) {
+
+        Scratch scratch = SCRATCH.get();
+        transformQuad(scratch, positions, quad, normalX, normalY, normalZ, transform, reversed);
+        return emitQuad(scratch, uvs, quad, sprite, reversed);
+    }
+
+    /**
+     * Transform the vertices and the normal of a quad into the scratch buffers
+     */
+    private static void transformQuad(Scratch scratch, float[] positions, int quad,
+                                      float normalX, float normalY, float normalZ,
+                                      Transformation transform, boolean reversed) {
+        boolean hasTransform = !transform.isIdentity();
+
+        Vector3f normal = scratch.normal;
+        if (reversed) {
+            normal.set(-normalX, -normalY, -normalZ);
+        } else {
+            normal.set(normalX, normalY, normalZ);
+        }
+        if (hasTransform) {
+            transform.transformNormal(normal);
+        }
+
+        Vector4f pos = scratch.position;
+        float[] transformed = scratch.transformed;
+        for (int i = 0; i < 4; i++) {
+            int p = quad * 12 + i * 3;
+            pos.set(positions[p], positions[p + 1], positions[p + 2], 1.0f);
+            if (hasTransform) {
+                transform.transformPosition(pos);
+            }
+            transformed[i * 3] = pos.x();
+            transformed[i * 3 + 1] = pos.y();
+            transformed[i * 3 + 2] = pos.z();
+        }
+    }
+
+    /**
+     * Emit the transformed quad in the scratch buffers through the reused consumer
+     * The quad direction follows the transformed normal, so rotated variants are shaded like their final side
+     */
+    private static BakedQuad emitQuad(Scratch scratch, float[] uvs, int quad, TextureAtlasSprite sprite, boolean reversed) {
+        Vector3f normal = scratch.normal;
+        float[] transformed = scratch.transformed;
+
+        float u0 = sprite.getU0();
+        float v0 = sprite.getV0();
+        float uScale = (sprite.getU1() - u0) / sprite.contents().width();
+        float vScale = (sprite.getV1() - v0) / sprite.contents().height();
+
+        QuadBakingVertexConsumer baker = scratch.baker;
+        baker.setSprite(sprite);
+        baker.setDirection(Direction.getApproximateNearest(normal.x(), normal.y(), normal.z()));
+        baker.setTintIndex(TINT_INDEX_NONE);
+        baker.setShade(true);
+
+        for (int n = 0; n < 4; n++) {
+            int i = reversed ? 3 - n : n;
+            int t = quad * 8 + i * 2;
+            baker.addVertex(transformed[i * 3], transformed[i * 3 + 1], transformed[i * 3 + 2]);
+            baker.setColor(COLOR_WHITE[0], COLOR_WHITE[1], COLOR_WHITE[2], COLOR_WHITE[3]);
+            baker.setUv(u0 + uvs[t] * uScale, v0 + uvs[t + 1] * vScale);
+            baker.setNormal(normal.x(), normal.y(), normal.z());
+        }
+
+        return baker.bakeQuad();
+    }
+
+    /**
+     * Calculate the cull face of a fully transformed quad
+     * A quad is culled against a side when its normal points along that side's axis and all of its
+     * vertices lie on that side of the unit cube
+     *
+     * @param vertices 12 floats, the transformed x, y, z of each of the 4 vertices
+     * @param normal   the transformed face normal
+     * @return the cull face Direction, or null if the quad is not on the block boundary
+     */
+    static Direction calculateCullFace(float[] vertices, Vector3f normal) {
+        Direction side = Direction.getApproximateNearest(normal.x(), normal.y(), normal.z());
+        int axis = side.getAxis().ordinal();
+        if (Math.abs(normal.get(axis)) < 1.0f - CULL_EPSILON) {
+            return null;
+        }
+
+        float boundary = side.getAxisDirection() == Direction.AxisDirection.POSITIVE ? 1.0f : 0.0f;
+        for (int i = 0; i < 4; i++) {
+            for (int a = 0; a < 3; a++) {
+                float value = vertices[i * 3 + a];
+                if (a == axis) {
+                    if (Math.abs(value - boundary) > CULL_EPSILON) {
+                        return null;
+                    }
+                } else if (value < -CULL_EPSILON || value > 1.0f + CULL_EPSILON) {
+                    return null;
+                }
+            }
+        }
+        return side;
+    }
+
+    /**
+     * Write the 4 vertices of a box face, same order as {@link #getFaceVertices}
+     *
+     * @param face the Direction of the face
+     * @param x0   the minimum x coordinate
+     * @param y0   the minimum y coordinate
+     * @param z0   the minimum z coordinate
+     * @param x1   the maximum x coordinate
+     * @param y1   the maximum y coordinate
+     * @param z1   the maximum z coordinate
+     * @param out  the array receiving 12 floats
+     */
+    public static void writeFaceVertices(Direction face, float x0, float y0, float z0,
+                                         float x1, float y1, float z1, float[] out) {
+        switch (face) {
+            case DOWN -> setVertices(out, x0, y0, z0, x1, y0, z0, x1, y0, z1, x0, y0, z1);
+            case UP -> setVertices(out, x0, y1, z1, x1, y1, z1, x1, y1, z0, x0, y1, z0);
+            case NORTH -> setVertices(out, x1, y0, z0, x0, y0, z0, x0, y1, z0, x1, y1, z0);
+            case SOUTH -> setVertices(out, x0, y0, z1, x1, y0, z1, x1, y1, z1, x0, y1, z1);
+            case WEST -> setVertices(out, x0, y0, z0, x0, y0, z1, x0, y1, z1, x0, y1, z0);
+            case EAST -> setVertices(out, x1, y0, z1, x1, y0, z0, x1, y1, z0, x1, y1, z1);
+        }
+    }
+
+    private static void setVertices(float[] out, float ax, float ay, float az, float bx, float by, float bz,
+                                    float cx, float cy, float cz, float dx, float dy, float dz) {
+        out[0] = ax;
+        out[1] = ay;
+        out[2] = az;
+        out[3] = bx;
+        out[4] = by;
+        out[5] = bz;
+        out[6] = cx;
+        out[7] = cy;
+        out[8] = cz;
+        out[9] = dx;
+        out[10] = dy;
+        out[11] = dz;
+    }
+
+    /**
+     * Write the UVs of a face in texture pixels, they are mapped into the sprite when the quad is emitted
+     *
+     * @param face   the Direction of the face
+     * @param layout the texture layout for the face
+     * @param sizeX  the unstretched size of the box on the x axis
+     * @param sizeY  the unstretched size of the box on the y axis
+     * @param sizeZ  the unstretched size of the box on the z axis
+     * @param out    the array receiving 8 floats
+     */
+    public static void writeFaceUVs(Direction face, BlockyModelGeometry.FaceTextureLayout layout,
+                                    float sizeX, float sizeY, float sizeZ, float[] out) {
+        float uSize = switch (face) {
+            case UP, DOWN -> sizeX;
+            case WEST, EAST -> sizeZ;
+            default -> sizeX;
+        };
+        float vSize = switch (face) {
+            case UP, DOWN -> sizeZ;
+            default -> sizeY;
+        };
+
+        float pivotU = layout.offsetX();
+        float pivotV = layout.offsetY();
+        float du = layout.mirrorX() ? -uSize : uSize;
+        float dv = layout.mirrorY() ? -vSize : vSize;
+
+        if (layout.angle() == 0) {
+            // Mirroring swaps the bounds and the vertices, which cancels out
+            out[0] = pivotU;
+            out[1] = pivotV + dv;
+            out[2] = pivotU + du;
+            out[3] = pivotV + dv;
+            out[4] = pivotU + du;
+            out[5] = pivotV;
+            out[6] = pivotU;
+            out[7] = pivotV;
+            return;
+        }
+
+        // Corners relative to the pivot, clockwise from the pivot, then rotated around it
+        writeRotatedCorner(out, 0, 0, 0, pivotU, pivotV, layout.angle());
+        writeRotatedCorner(out, 1, du, 0, pivotU, pivotV, layout.angle());
+        writeRotatedCorner(out, 2, du, dv, pivotU, pivotV, layout.angle());
+        writeRotatedCorner(out, 3, 0, dv, pivotU, pivotV, layout.angle());
+    }
+
+    private static void writeRotatedCorner(float[] out, int vertex, float dx, float dy,
+                                           float pivotX, float pivotY, int angle) {
+        float rx, ry;
+        switch (angle) {
+            case 90 -> {
+                rx = -dy;
+                ry = dx;
+            }
+            case 180 -> {
+                rx = -dx;
+                ry = -dy;
+            }
+            case 270 -> {
+                rx = dy;
+                ry = -dx;
+            }
+            default -> {
+                rx = dx;
+                ry = dy;
+            }
+        }
+        out[vertex * 2] = pivotX + rx;
+        out[vertex * 2 + 1] = pivotY + ry;
     }
 
     /**
@@ -166,199 +473,6 @@ public class QuadBuilder {
     }
 
 
-    /**
-     * Calculate UV coordinates for a face
-     *
-     * @param face   the Direction of the face
-     * @param layout the texture layout for the face
-     * @param size   the size of the face
-     * @param sprite the TextureAtlasSprite to use for UV calculation
-     * @return an array of UV coordinates for each vertex of the face
-     */
-    private static float[][] calculateUVCoordinates(Direction face, BlockyModelGeometry.FaceTextureLayout layout,
-                                                    Vector3f size, TextureAtlasSprite sprite) {
-        UVSize uvSize = getUVSizeForFace(face, size);
-        UVBounds bounds = calculateUVBounds(layout, uvSize, sprite);
-        return transformUVCoordinates(bounds, layout, uvSize, sprite);
-    }
-
-    /**
-     * Get UV size based on face orientation
-     *
-     * @param face the Direction of the face
-     * @param size the size of the face
-     * @return the UVSize for the given face and rotation
-     */
-    private static UVSize getUVSizeForFace(Direction face, Vector3f size) {
-        return switch (face) {
-            case UP, DOWN -> new UVSize(size.x, size.z);
-            case WEST, EAST -> new UVSize(size.z, size.y);
-            default -> new UVSize(size.x, size.y);
-        };
-    }
-
-    /**
-     * Calculate UV bounds using layout and sprite
-     *
-     * @param layout the texture layout for the face
-     * @param uvSize the UV size for the face
-     * @param sprite the TextureAtlasSprite to use for UV calculation
-     * @return the UV bounds for the given layout and sprite
-     */
-    private static UVBounds calculateUVBounds(BlockyModelGeometry.FaceTextureLayout layout, UVSize uvSize,
-                                              TextureAtlasSprite sprite) {
-        int textureWidth = sprite.contents().width();
-        int textureHeight = sprite.contents().height();
-
-        float uMin = layout.offsetX() / (float) textureWidth;
-        float vMin = layout.offsetY() / (float) textureHeight;
-        float uMax = (layout.offsetX() + (layout.mirrorX() ? -uvSize.u : uvSize.u)) / (float) textureWidth;
-        float vMax = (layout.offsetY() + (layout.mirrorY() ? -uvSize.v : uvSize.v)) / (float) textureHeight;
-
-        if (layout.mirrorX()) {
-            float temp = uMin;
-            uMin = uMax;
-            uMax = temp;
-        }
-        if (layout.mirrorY()) {
-            float temp = vMin;
-            vMin = vMax;
-            vMax = temp;
-        }
-
-        // Map to sprite atlas
-        uMin = sprite.getU0() + (sprite.getU1() - sprite.getU0()) * uMin;
-        vMin = sprite.getV0() + (sprite.getV1() - sprite.getV0()) * vMin;
-        uMax = sprite.getU0() + (sprite.getU1() - sprite.getU0()) * uMax;
-        vMax = sprite.getV0() + (sprite.getV1() - sprite.getV0()) * vMax;
-        return new UVBounds(uMin, vMin, uMax, vMax);
-    }
-
-    /**
-     * Transform UV coordinates with rotation and mirroring
-     *
-     * @param bounds the UV bounds
-     * @param layout the texture layout containing rotation and mirror flags
-     * @param uvSize the size of the UV region
-     * @param sprite the TextureAtlasSprite for coordinate conversion
-     * @return transformed UV coordinates for all 4 vertices
-     */
-    private static float[][] transformUVCoordinates(
-            UVBounds bounds,
-            BlockyModelGeometry.FaceTextureLayout layout,
-            UVSize uvSize,
-            TextureAtlasSprite sprite) {
-
-        int textureWidth = sprite.contents().width();
-        int textureHeight = sprite.contents().height();
-        int angle = layout.angle();
-        boolean mirrorX = layout.mirrorX();
-        boolean mirrorY = layout.mirrorY();
-
-        float[][] uvs = new float[4][2];
-
-        if (angle != 0) {
-            float pivotUPx = layout.offsetX();
-            float pivotVPx = layout.offsetY();
-
-            float uSize = mirrorX ? -uvSize.u : uvSize.u;
-            float vSize = mirrorY ? -uvSize.v : uvSize.v;
-
-            float[][] cornersPx = new float[4][2];
-            cornersPx[0] = new float[]{pivotUPx, pivotVPx};              // Top-left (pivot)
-            cornersPx[1] = new float[]{pivotUPx + uSize, pivotVPx};      // Top-right
-            cornersPx[2] = new float[]{pivotUPx + uSize, pivotVPx + vSize}; // Bottom-right
-            cornersPx[3] = new float[]{pivotUPx, pivotVPx + vSize};      // Bottom-left
-
-            for (int i = 0; i < 4; i++) {
-                float[] rotated = rotatePointClockwise(
-                        cornersPx[i][0], cornersPx[i][1],
-                        pivotUPx, pivotVPx,
-                        angle
-                );
-
-                uvs[i][0] = normalizeU(rotated[0], sprite, textureWidth);
-                uvs[i][1] = normalizeV(rotated[1], sprite, textureHeight);
-            }
-        } else {
-            uvs[0] = new float[]{bounds.uMin, bounds.vMax};
-            uvs[1] = new float[]{bounds.uMax, bounds.vMax};
-            uvs[2] = new float[]{bounds.uMax, bounds.vMin};
-            uvs[3] = new float[]{bounds.uMin, bounds.vMin};
-
-            if (mirrorX) {
-                float[] temp = uvs[0];
-                uvs[0] = uvs[1];
-                uvs[1] = temp;
-
-                temp = uvs[3];
-                uvs[3] = uvs[2];
-                uvs[2] = temp;
-            }
-            if (mirrorY) {
-                float[] temp = uvs[0];
-                uvs[0] = uvs[3];
-                uvs[3] = temp;
-
-                temp = uvs[1];
-                uvs[1] = uvs[2];
-                uvs[2] = temp;
-            }
-        }
-
-        return uvs;
-    }
-
-
-    /**
-     * Rotate a point (x, y) around a pivot (pivotX, pivotY) by a given angle in degrees
-     *
-     * @param x      the x-coordinate of the point to rotate
-     * @param y      the y-coordinate of the point to rotate
-     * @param pivotX the x-coordinate of the pivot point
-     * @param pivotY the y-coordinate of the pivot point
-     * @param angle  the rotation angle in degrees (must be one of 0, 90, 180, 270)
-     * @return the new coordinates of the point after rotation as a float array [newX, newY]
-     */
-    private static float[] rotatePointClockwise(float x, float y, float pivotX, float pivotY, int angle) {
-        float dx = x - pivotX;
-        float dy = y - pivotY;
-
-        float newDx, newDy;
-        newDy = switch (angle) {
-            case 90 -> {
-                newDx = -dy;
-                yield dx;
-            }
-            case 180 -> {
-                newDx = -dx;
-                yield -dy;
-            }
-            case 270 -> {
-                newDx = dy;
-                yield -dx;
-            }
-            default -> {
-                newDx = dx;
-                yield dy;
-            }
-        };
-
-        return new float[]{pivotX + newDx, pivotY + newDy};
-    }
-
-
-    // Helper funcs to get u and v normalized to proper coords
-    private static float normalizeU(float pixelU, TextureAtlasSprite sprite, int textureWidth) {
-        float relativeU = pixelU / textureWidth;
-        return sprite.getU0() + (sprite.getU1() - sprite.getU0()) * relativeU;
-    }
-
-    private static float normalizeV(float pixelV, TextureAtlasSprite sprite, int textureHeight) {
-        float relativeV = pixelV / textureHeight;
-        return sprite.getV0() + (sprite.getV1() - sprite.getV0()) * relativeV;
-    }
-
     /**
      * Get the 4 vertices for a given face
      *
@@ -399,67 +513,6 @@ public class QuadBuilder {
         };
     }
 
-    /**
-     * Bake vertices for the quad
-     *
-     * @param baker     the QuadBakingVertexConsumer
-     * @param vertices  the vertices of the quad
-     * @param uvCoords  the UV coordinates for the quad
-     * @param face      the Direction of the face
-     * @param transform the transformation to apply
-     */
-    private static void bakeVertices(QuadBakingVertexConsumer baker, Vector3f[] vertices,
-                                     float[][] uvCoords, Direction face, Transformation transform) {
-        Vector3f normal = new Vector3f(face.getStepX(), face.getStepY(), face.getStepZ());
-        boolean hasTransform = !transform.isIdentity();
-
-        for (int i = 0; i < 4; i++) {
-            Vector4f pos = new Vector4f(vertices[i].x, vertices[i].y, vertices[i].z, 1.0f);
-            Vector3f norm = new Vector3f(normal);
-
-            if (hasTransform) {
-                transform.transformPosition(pos);
-                transform.transformNormal(norm);
-            }
-
-            baker.addVertex(pos.x(), pos.y(), pos.z());
-            baker.setColor(COLOR_WHITE[0], COLOR_WHITE[1], COLOR_WHITE[2], COLOR_WHITE[3]);
-            baker.setUv(uvCoords[i][0], uvCoords[i][1]);
-            baker.setNormal(norm.x(), norm.y(), norm.z());
-        }
-    }
-
-    /**
-     * Bake vertices in reverse order for backfaces
-     *
-     * @param baker     the QuadBakingVertexConsumer
-     * @param vertices  the vertices of the quad
-     * @param uvCoords  the UV coordinates for the quad
-     * @param face      the Direction of the face
-     * @param transform the transformation to apply
-     */
-    private static void bakeVerticesReversed(QuadBakingVertexConsumer baker, Vector3f[] vertices,
-                                             float[][] uvCoords, Direction face, Transformation transform) {
-        Vector3f normal = new Vector3f(-face.getStepX(), -face.getStepY(), -face.getStepZ());
-        boolean hasTransform = !transform.isIdentity();
-
-        // Reverse order
-        for (int i = 3; i >= 0; i--) {
-            Vector4f pos = new Vector4f(vertices[i].x, vertices[i].y, vertices[i].z, 1.0f);
-            Vector3f norm = new Vector3f(normal);
-
-            if (hasTransform) {
-                transform.transformPosition(pos);
-                transform.transformNormal(norm);
-            }
-
-            baker.addVertex(pos.x(), pos.y(), pos.z());
-            baker.setColor(COLOR_WHITE[0], COLOR_WHITE[1], COLOR_WHITE[2], COLOR_WHITE[3]);
-            baker.setUv(uvCoords[i][0], uvCoords[i][1]);
-            baker.setNormal(norm.x(), norm.y(), norm.z());
-        }
-    }
-
     /**
      * Bake border vertices for debugging
      *
@@ -515,22 +568,15 @@ public class QuadBuilder {
     }
 
     /**
-     * Calculate cull face based on quad orientation
-     *
-     * @param face the Direction of the face
-     * @param min  the minimum coordinates of the face
-     * @param max  the maximum coordinates of the face
-     * @return the cull face Direction, or null if none
+     * Per-thread buffers reused by {@link #bakeFace} and {@link #bakeQuad}
+     * The vertex consumer resets itself in bakeQuad, so it can be reused for the next quad
      */
-    private static Direction calculateCullFace(Direction face, Vector3f min, Vector3f max) {
-        // Currently disabled
-        return null;
-    }
-
-    // Helper records for clean data passing
-    private record UVSize(float u, float v) {
-    }
-
-    private record UVBounds(float uMin, float vMin, float uMax, float vMax) {
+    private static final class Scratch {
+        private final QuadBakingVertexConsumer baker = new QuadBakingVertexConsumer();
+        private final float[] positions = new float[12];
+        private final float[] uvs = new float[8];
+        private final float[] transformed = new float[12];
+        private final Vector4f position = new Vector4f();
+        private final Vector3f normal = new Vector3f();
     }
-}
\ No newline at end of file
+}
@@ -6,8 +6,8 @@ import org.joml.Vector3f;
 
 public class TransformCalculator {
 
-    private static final float POSITION_SCALE = 32.0f;      // Convert from model units to block units
-    private static final float POSITION_OFFSET_Y = 16.0f;   // Y-axis offset
+    static final float POSITION_SCALE = 32.0f;      // Convert from model units to block units
+    static final float POSITION_OFFSET_Y = 16.0f;           // Y-axis offset
 
     /**
      * Calculate the world-space position of a node
@@ -57,6 +57,53 @@ public class TransformCalculator {
         return worldRot;
     }
 
+    /**
+     * Calculate world positions and orientations for a flattened hierarchy in a single linear pass
+     * Nodes must be ordered parent before child, every node reuses the already computed world transform of its parent
+     *
+     * @param parents           the parent index of each node, -1 for roots
+     * @param localPositions    the local positions, 3 floats per node
+     * @param localOrientations the local orientations, 4 floats per node (x, y, z, w)
+     * @param shapeOffsets      the visible shape offsets, 3 floats per node (zero for nodes without a visible shape)
+     * @param worldPositions    output for the world positions, 3 floats per node
+     * @param worldOrientations output for the world orientations, 4 floats per node
+     */
+    public static void calculateWorldTransforms(int[] parents, float[] localPositions, float[] localOrientations,
+                                                float[] shapeOffsets, float[] worldPositions, float[] worldOrientations) {
+        Quaternionf parentRot = new Quaternionf();
+        Quaternionf rot = new Quaternionf();
+        Vector3f pos = new Vector3f();
+
+        for (int i = 0; i < parents.length; i++) {
+            int p3 = i * 3, p4 = i * 4;
+            int parent = parents[i];
+
+            pos.set(localPositions[p3], localPositions[p3 + 1], localPositions[p3 + 2]);
+            rot.set(localOrientations[p4], localOrientations[p4 + 1], localOrientations[p4 + 2], localOrientations[p4 + 3]);
+
+            if (parent >= 0) {
+                int q3 = parent * 3, q4 = parent * 4;
+                parentRot.set(worldOrientations[q4], worldOrientations[q4 + 1], worldOrientations[q4 + 2], worldOrientations[q4 + 3]);
+
+                // Local position and the parent's shape offset are both expressed in the parent's frame
+                pos.add(shapeOffsets[q3], shapeOffsets[q3 + 1], shapeOffsets[q3 + 2]);
+                parentRot.transform(pos);
+                pos.add(worldPositions[q3], worldPositions[q3 + 1], worldPositions[q3 + 2]);
+
+                // Compose rotations: parent * child
+                parentRot.mul(rot, rot);
+            }
+
+            worldPositions[p3] = pos.x;
+            worldPositions[p3 + 1] = pos.y;
+            worldPositions[p3 + 2] = pos.z;
+            worldOrientations[p4] = rot.x;
+            worldOrientations[p4 + 1] = rot.y;
+            worldOrientations[p4 + 2] = rot.z;
+            worldOrientations[p4 + 3] = rot.w;
+        }
+    }
+
     /**
      * Create a Transformation for a node given its world position, shape offset, and world orientation
      *
@@ -98,4 +145,4 @@ public class TransformCalculator {
         );
     }
 
-}
\ No newline at end of file
+}
\ No newline at end of file
@@ -0,0 +1,123 @@
+package com.litehed.hytalemodels.profiling;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Period;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+/**
+ * JDK Flight Recorder events for model loading and baking
+ * Events cost nothing unless a recording enables them, record with e.g. {@code -XX:StartFlightRecording}
+ * and look for the HytaleModelLoader category
+ */
+public final class BlockyModelEvents {
+
+    private static final String CATEGORY = "HytaleModelLoader";
+
+    private BlockyModelEvents() {
+    }
+
+    @Name("hytalemodelloader.Tokenize")
+    @Label("BlockyModel Tokenize")
+    @Description("Building the JSON tree of a .blockymodel file")
+    @Category(CATEGORY)
+    @StackTrace(false)
+    public static class Tokenize extends Event {
+        @Label("Model")
+        public String location;
+    }
+
+    @Name("hytalemodelloader.Parse")
+    @Label("BlockyModel Parse")
+    @Description("Building the nodes of a model, the streaming parser also tokenizes during this event")
+    @Category(CATEGORY)
+    @StackTrace(false)
+    public static class Parse extends Event {
+        @Label("Model")
+        public String location;
+        @Label("Node Count")
+        public int nodeCount;
+        @Label("Compiled")
+        public boolean compiled;
+        @Label("Streaming")
+        public boolean streaming;
+    }
+
+    @Name("hytalemodelloader.GeometryCache")
+    @Label("BlockyModel Geometry Cache")
+    @Description("A geometry lookup in the loader cache")
+    @Category(CATEGORY)
+    @StackTrace(false)
+    public static class GeometryCache extends Event {
+        @Label("Model")
+        public String location;
+        @Label("Hit")
+        public boolean hit;
+        @Label("Node Count")
+        public int nodeCount;
+    }
+
+    @Name("hytalemodelloader.Bake")
+    @Label("BlockyModel Bake")
+    @Description("Baking a geometry into quads for one texture and transform combination")
+    @Category(CATEGORY)
+    @StackTrace(false)
+    public static class Bake extends Event {
+        @Label("Model")
+        public String location;
+        @Label("Node Count")
+        public int nodeCount;
+        @Label("Quad Count")
+        public int quadCount;
+        @Label("Cached")
+        public boolean cached;
+        @Label("Deferred")
+        public boolean deferred;
+    }
+
+    @Name("hytalemodelloader.Statistics")
+    @Label("BlockyModel Statistics")
+    @Description("Cumulative loading and baking counters since startup")
+    @Category(CATEGORY)
+    @StackTrace(false)
+    @Period("10 s")
+    public static class Statistics extends Event {
+        @Label("Tokenized Models")
+        public long tokenizeCount;
+        @Label("Tokenize Time")
+        @Timespan
+        public long tokenizeTime;
+        @Label("Parsed Models")
+        public long parseCount;
+        @Label("Parse Time")
+        @Timespan
+        public long parseTime;
+        @Label("Parsed Nodes")
+        public long parsedNodes;
+        @Label("Geometry Cache Hits")
+        public long geometryHits;
+        @Label("Geometry Cache Misses")
+        public long geometryMisses;
+        @Label("Bakes")
+        public long bakeCount;
+        @Label("Bake Cache Hits")
+        public long bakeCacheHits;
+        @Label("Bake Time")
+        @Timespan
+        public long bakeTime;
+        @Label("Baked Quads")
+        public long bakedQuads;
+        @Label("Deferred Bakes")
+        public long deferredBakes;
+        @Label("Deferred Bakes Resolved")
+        public long deferredBakesResolved;
+        @Label("Parsed Bytes")
+        @DataAmount
+        public long parsedBytes;
+    }
+}
@@ -0,0 +1,113 @@
+package com.litehed.hytalemodels.profiling;
+
+import com.litehed.hytalemodels.HytaleModelLoader;
+import com.litehed.hytalemodels.modelstuff.BlockyModelLoader;
+import com.mojang.brigadier.CommandDispatcher;
+import com.mojang.brigadier.arguments.IntegerArgumentType;
+import net.minecraft.commands.CommandSourceStack;
+import net.minecraft.commands.Commands;
+import net.minecraft.network.chat.Component;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Client command {@code /blockymodels memory [limit]} that reports the estimated heap held by loaded models
+ * The most expensive models and the totals per namespace are shown in chat, the full report goes to the log
+ */
+public final class BlockyModelMemoryCommand {
+
+    private static final int DEFAULT_LIMIT = 10;
+
+    private BlockyModelMemoryCommand() {
+    }
+
+    public static void register(CommandDispatcher<CommandSourceStack> dispatcher) {
+        dispatcher.register(Commands.literal("blockymodels")
+                .then(Commands.literal("memory")
+                        .executes(context -> report(context.getSource(), DEFAULT_LIMIT))
+                        .then(Commands.argument("limit", IntegerArgumentType.integer(1))
+                                .executes(context -> report(context.getSource(),
+                                        IntegerArgumentType.getInteger(context, "limit"))))));
+    }
+
+    private static int report(CommandSourceStack source, int limit) {
+        List<BlockyModelLoader.ModelMemory> models = BlockyModelLoader.INSTANCE.memoryReport();
+
+        Map<String, NamespaceMemory> namespaces = new LinkedHashMap<>();
+        long totalBytes = 0;
+        for (BlockyModelLoader.ModelMemory model : models) {
+            namespaces.computeIfAbsent(model.location().getNamespace(), NamespaceMemory::new).add(model);
+            totalBytes += model.totalBytes();
+        }
+        List<NamespaceMemory> sortedNamespaces = new ArrayList<>(namespaces.values());
+        sortedNamespaces.sort(Comparator.comparingLong(NamespaceMemory::totalBytes).reversed());
+
+        send(source, String.format(Locale.ROOT, "%d BlockyModels hold about %s", models.size(), formatBytes(totalBytes)));
+        for (int i = 0; i < Math.min(limit, models.size()); i++) {
+            send(source, "  " + describe(models.get(i)));
+        }
+        send(source, "Per namespace:");
+        for (NamespaceMemory namespace : sortedNamespaces) {
+            send(source, String.format(Locale.ROOT, "  %s: %s in %d models, %d nodes, %d baked quads",
+                    namespace.namespace, formatBytes(namespace.totalBytes()), namespace.models,
+                    namespace.nodes, namespace.bakedQuads));
+        }
+
+        StringBuilder log = new StringBuilder("[BlockyModelMemoryCommand] Memory report:");
+        for (BlockyModelLoader.ModelMemory model : models) {
+            log.append("\n  ").append(describe(model));
+        }
+        HytaleModelLoader.LOGGER.info(log.toString());
+        return models.size();
+    }
+
+    private static String describe(BlockyModelLoader.ModelMemory model) {
+        return String.format(Locale.ROOT, "%s: %s (nodes %d = %s, mesh %d quads = %s, baked %d quads = %s)",
+                model.location(), formatBytes(model.totalBytes()),
+                model.nodeCount(), formatBytes(model.parsedBytes()),
+                model.meshQuads(), formatBytes(model.meshBytes()),
+                model.bakedQuads(), formatBytes(model.bakedBytes()));
+    }
+
+    private static void send(CommandSourceStack source, String message) {
+        source.sendSuccess(() -> Component.literal(message), false);
+    }
+
+    private static String formatBytes(long bytes) {
+        if (bytes < 1024) {
+            return bytes + " B";
+        }
+        if (bytes < 1024 * 1024) {
+            return String.format(Locale.ROOT, "%.1f KiB", bytes / 1024.0);
+        }
+        return String.format(Locale.ROOT, "%.2f MiB", bytes / (1024.0 * 1024.0));
+    }
+
+    private static final class NamespaceMemory {
+        final String namespace;
+        int models;
+        long nodes;
+        long bakedQuads;
+        long bytes;
+
+        NamespaceMemory(String namespace) {
+            this.namespace = namespace;
+        }
+
+        void add(BlockyModelLoader.ModelMemory model) {
+            models++;
+            nodes += model.nodeCount();
+            bakedQuads += model.bakedQuads();
+            bytes += model.totalBytes();
+        }
+
+        long totalBytes() {
+            return bytes;
+        }
+    }
+}
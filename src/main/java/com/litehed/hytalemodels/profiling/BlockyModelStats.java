@@ -0,0 +1,62 @@
+package com.litehed.hytalemodels.profiling;
+
+import jdk.jfr.FlightRecorder;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Cumulative counters for model loading and baking, updated from the parallel loading threads without contention
+ * The counters are published to JFR through the periodic {@link BlockyModelEvents.Statistics} event
+ */
+public final class BlockyModelStats {
+
+    public static final LongAdder TOKENIZE_COUNT = new LongAdder();
+    public static final LongAdder TOKENIZE_NANOS = new LongAdder();
+    public static final LongAdder PARSE_COUNT = new LongAdder();
+    public static final LongAdder PARSE_NANOS = new LongAdder();
+    public static final LongAdder PARSED_NODES = new LongAdder();
+    public static final LongAdder PARSED_BYTES = new LongAdder();
+    public static final LongAdder GEOMETRY_HITS = new LongAdder();
+    public static final LongAdder GEOMETRY_MISSES = new LongAdder();
+    public static final LongAdder BAKE_COUNT = new LongAdder();
+    public static final LongAdder BAKE_CACHE_HITS = new LongAdder();
+    public static final LongAdder BAKE_NANOS = new LongAdder();
+    public static final LongAdder BAKED_QUADS = new LongAdder();
+    public static final LongAdder DEFERRED_BAKES = new LongAdder();
+    public static final LongAdder DEFERRED_BAKES_RESOLVED = new LongAdder();
+
+    private static boolean registered;
+
+    private BlockyModelStats() {
+    }
+
+    /**
+     * Register the periodic statistics event, safe to call more than once
+     */
+    public static synchronized void register() {
+        if (registered) {
+            return;
+        }
+        registered = true;
+        FlightRecorder.addPeriodicEvent(BlockyModelEvents.Statistics.class, BlockyModelStats::emit);
+    }
+
+    private static void emit() {
+        BlockyModelEvents.Statistics event = new BlockyModelEvents.Statistics();
+        event.tokenizeCount = TOKENIZE_COUNT.sum();
+        event.tokenizeTime = TOKENIZE_NANOS.sum();
+        event.parseCount = PARSE_COUNT.sum();
+        event.parseTime = PARSE_NANOS.sum();
+        event.parsedNodes = PARSED_NODES.sum();
+        event.parsedBytes = PARSED_BYTES.sum();
+        event.geometryHits = GEOMETRY_HITS.sum();
+        event.geometryMisses = GEOMETRY_MISSES.sum();
+        event.bakeCount = BAKE_COUNT.sum();
+        event.bakeCacheHits = BAKE_CACHE_HITS.sum();
+        event.bakeTime = BAKE_NANOS.sum();
+        event.bakedQuads = BAKED_QUADS.sum();
+        event.deferredBakes = DEFERRED_BAKES.sum();
+        event.deferredBakesResolved = DEFERRED_BAKES_RESOLVED.sum();
+        event.commit();
+    }
+}
@@ -0,0 +1,53 @@
+package com.litehed.hytalemodels.profiling;
+
+/**
+ * Shallow heap size estimates for model data, assuming a 64-bit JVM with compressed oops
+ * The numbers are meant for comparing models with each other, not for exact accounting
+ */
+public final class MemoryEstimator {
+
+    public static final int OBJECT_HEADER = 12;
+    public static final int ARRAY_HEADER = 16;
+    public static final int REFERENCE = 4;
+
+    // A baked quad in the block vertex format: 4 vertices of 8 ints, plus the quad object itself
+    private static final long BAKED_QUAD = align(OBJECT_HEADER + REFERENCE * 3 + 4 + 4 + 1) + array(4 * 8, 4);
+
+    private MemoryEstimator() {
+    }
+
+    /**
+     * Estimate the size of a primitive or reference array
+     *
+     * @param length      the array length
+     * @param elementSize the size of one element in bytes
+     * @return the estimated size in bytes
+     */
+    public static long array(int length, int elementSize) {
+        return align(ARRAY_HEADER + (long) length * elementSize);
+    }
+
+    /**
+     * Estimate the size of a string and its backing array, assuming compact Latin-1 storage
+     *
+     * @param string the string, may be null
+     * @return the estimated size in bytes, 0 for null
+     */
+    public static long string(String string) {
+        return string == null ? 0 : align(OBJECT_HEADER + REFERENCE + 4 + 1 + 1) + array(string.length(), 1);
+    }
+
+    /**
+     * Estimate the size of baked quads
+     *
+     * @param quadCount the number of quads
+     * @return the estimated size in bytes
+     */
+    public static long bakedQuads(long quadCount) {
+        return quadCount * BAKED_QUAD;
+    }
+
+    private static long align(long size) {
+        return (size + 7) & ~7L;
+    }
+}
@@ -0,0 +1,140 @@
+package com.litehed.hytalemodels.profiling;
+
+import com.google.gson.stream.JsonWriter;
+import com.litehed.hytalemodels.Config;
+import com.litehed.hytalemodels.HytaleModelLoader;
+import net.neoforged.fml.loading.FMLPaths;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Opt-in timeline of a resource reload, written as a Chrome trace-event file that opens in chrome://tracing or Perfetto
+ * Spans are recorded per thread while a trace is running, so parallel parsing, lock waits and
+ * the critical path of a reload show up as separate tracks
+ * <p>
+ * Usage: {@code long start = ReloadTrace.start(); ... ReloadTrace.end("parse", location, start);}
+ */
+public final class ReloadTrace {
+
+    private static final DateTimeFormatter FILE_TIME = DateTimeFormatter.ofPattern("yyyy-MM-dd_HH.mm.ss");
+
+    private static volatile Recording recording;
+
+    private ReloadTrace() {
+    }
+
+    /**
+     * Start a new trace if reload tracing is enabled in the config, any unfinished trace is dropped
+     */
+    public static void begin() {
+        recording = Config.TRACE_RELOADS.getAsBoolean() ? new Recording(System.nanoTime()) : null;
+    }
+
+    /**
+     * Get the start time of a span
+     *
+     * @return the current time, or 0 if no trace is running
+     */
+    public static long start() {
+        return recording != null ? System.nanoTime() : 0;
+    }
+
+    /**
+     * Record a span that started at {@link #start()} and ends now
+     *
+     * @param name   the span name
+     * @param detail the model or resource the span belongs to, may be null
+     * @param start  the value returned by {@link #start()}
+     */
+    public static void end(String name, Object detail, long start) {
+        Recording current = recording;
+        if (current == null || start == 0) {
+            return;
+        }
+        Thread thread = Thread.currentThread();
+        current.spans.add(new Span(name, detail != null ? detail.toString() : null,
+                thread.threadId(), thread.getName(), start, System.nanoTime()));
+    }
+
+    /**
+     * Stop the running trace and write it to the game directory
+     */
+    public static void finish() {
+        Recording current = recording;
+        recording = null;
+        if (current == null) {
+            return;
+        }
+
+        Path file = FMLPaths.GAMEDIR.get().resolve("blockymodel-reload-" + LocalDateTime.now().format(FILE_TIME) + ".json");
+        try {
+            write(current, file);
+            HytaleModelLoader.LOGGER.info("[ReloadTrace] Wrote {} spans to {}", current.spans.size(), file);
+        } catch (IOException e) {
+            HytaleModelLoader.LOGGER.warn("[ReloadTrace] Could not write reload trace to {}", file, e);
+        }
+    }
+
+    private static void write(Recording recording, Path file) throws IOException {
+        try (Writer out = Files.newBufferedWriter(file, StandardCharsets.UTF_8);
+             JsonWriter json = new JsonWriter(out)) {
+            json.beginObject();
+            json.name("displayTimeUnit").value("ms");
+            json.name("traceEvents").beginArray();
+
+            Map<Long, String> threads = new HashMap<>();
+            for (Span span : recording.spans) {
+                threads.putIfAbsent(span.threadId(), span.threadName());
+                json.beginObject();
+                json.name("name").value(span.name());
+                json.name("cat").value("blockymodel");
+                json.name("ph").value("X");
+                json.name("ts").value(micros(span.start() - recording.origin()));
+                json.name("dur").value(micros(span.end() - span.start()));
+                json.name("pid").value(1);
+                json.name("tid").value(span.threadId());
+                if (span.detail() != null) {
+                    json.name("args").beginObject().name("model").value(span.detail()).endObject();
+                }
+                json.endObject();
+            }
+
+            // Metadata events name the thread tracks
+            for (Map.Entry<Long, String> thread : threads.entrySet()) {
+                json.beginObject();
+                json.name("name").value("thread_name");
+                json.name("ph").value("M");
+                json.name("pid").value(1);
+                json.name("tid").value(thread.getKey());
+                json.name("args").beginObject().name("name").value(thread.getValue()).endObject();
+                json.endObject();
+            }
+
+            json.endArray();
+            json.endObject();
+        }
+    }
+
+    private static double micros(long nanos) {
+        return nanos / 1000.0;
+    }
+
+    private record Recording(long origin, Queue<Span> spans) {
+        Recording(long origin) {
+            this(origin, new ConcurrentLinkedQueue<>());
+        }
+    }
+
+    private record Span(String name, String detail, long threadId, String threadName, long start, long end) {
+    }
+}
@@ -0,0 +1,320 @@
+package com.litehed.hytalemodels.render;
+
+import com.litehed.hytalemodels.HytaleModelLoader;
+import com.litehed.hytalemodels.animation.AnimationPlayer;
+import com.litehed.hytalemodels.animation.AnimationPoseTable;
+import com.litehed.hytalemodels.animation.BlockyAnimation;
+import com.litehed.hytalemodels.animation.BlockyAnimationLoader;
+import com.litehed.hytalemodels.blocks.BlockyAnimatedBlock;
+import com.litehed.hytalemodels.blocks.BlockyAnimatedBlockEntity;
+import com.litehed.hytalemodels.modelstuff.BlockyModelLoader;
+import com.litehed.hytalemodels.modelstuff.BlockyModelSkin;
+import com.litehed.hytalemodels.modelstuff.BlockyNodeMeshes;
+import com.litehed.hytalemodels.modelstuff.BlockyNodeStore;
+import com.mojang.blaze3d.vertex.PoseStack;
+import com.mojang.blaze3d.vertex.VertexConsumer;
+import com.mojang.math.Axis;
+import com.mojang.math.Transformation;
+import net.minecraft.client.Minecraft;
+import net.minecraft.client.renderer.SubmitNodeCollector;
+import net.minecraft.client.renderer.block.model.BlockModelPart;
+import net.minecraft.client.renderer.block.model.BlockStateModel;
+import net.minecraft.client.renderer.block.model.SimpleModelWrapper;
+import net.minecraft.client.renderer.blockentity.BlockEntityRenderer;
+import net.minecraft.client.renderer.blockentity.BlockEntityRendererProvider;
+import net.minecraft.client.renderer.blockentity.state.BlockEntityRenderState;
+import net.minecraft.client.renderer.feature.ModelFeatureRenderer;
+import net.minecraft.client.renderer.state.CameraRenderState;
+import net.minecraft.client.renderer.texture.OverlayTexture;
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.Direction;
+import net.minecraft.util.RandomSource;
+import net.minecraft.world.level.block.HorizontalDirectionalBlock;
+import net.minecraft.world.level.block.state.BlockState;
+import net.minecraft.world.phys.AABB;
+import net.minecraft.world.phys.Vec3;
+import org.jetbrains.annotations.Nullable;
+import org.joml.Matrix3f;
+import org.joml.Matrix4f;
+import org.joml.Matrix4fc;
+import org.joml.Vector3f;
+
+import java.util.Map;
+import java.util.WeakHashMap;
+
+/**
+ * Renders BlockyAnimatedBlocks from shared node-local meshes, see {@link BlockyNodeMeshes}
+ * Each block entity only keeps a matrix per node, which is recomputed when the pose of that node changes,
+ * and blocks far away from the camera update their pose less often
+ */
+public class BlockyAnimatedBlockRenderer implements BlockEntityRenderer<BlockyAnimatedBlockEntity, BlockyAnimatedBlockRenderer.State> {
+
+    private static final double FULL_RATE_DISTANCE = 16.0;      // Blocks closer than this update every frame
+    private static final float INTERVAL_PER_BLOCK = 1.0f / 320; // Seconds between updates per block past that
+    private static final float MAX_UPDATE_INTERVAL = 0.25f;
+    private static final float TICKS_PER_SECOND = 20.0f;
+
+    private final Map<BlockyAnimatedBlockEntity, Instance> instances = new WeakHashMap<>();
+
+    public BlockyAnimatedBlockRenderer(BlockEntityRendererProvider.Context context) {
+    }
+
+    @Override
+    public State createRenderState() {
+        return new State();
+    }
+
+    @Override
+    public void extractRenderState(BlockyAnimatedBlockEntity blockEntity, State state, float partialTick,
+                                   Vec3 cameraPosition, @Nullable ModelFeatureRenderer.CrumblingOverlay breakProgress) {
+        BlockEntityRenderer.super.extractRenderState(blockEntity, state, partialTick, cameraPosition, breakProgress);
+
+        Instance instance = getInstance(blockEntity);
+        state.instance = instance;
+        if (instance == null || blockEntity.getLevel() == null) {
+            return;
+        }
+
+        state.rotationSteps = blockEntity.getBlockState().getOptionalValue(HorizontalDirectionalBlock.FACING)
+                .map(Direction::get2DDataValue).orElse(0);
+
+        double distance = Math.sqrt(cameraPosition.distanceToSqr(Vec3.atCenterOf(blockEntity.getBlockPos())));
+        float seconds = (blockEntity.getLevel().getGameTime() + partialTick) / TICKS_PER_SECOND;
+        instance.update(seconds, updateInterval(distance));
+    }
+
+    @Override
+    public void submit(State state, PoseStack poseStack, SubmitNodeCollector collector, CameraRenderState cameraState) {
+        Instance instance = state.instance;
+        if (instance == null) {
+            return;
+        }
+
+        int light = state.lightCoords;
+        poseStack.pushPose();
+        if (state.rotationSteps != 0) {
+            // Same direction as blockstate y rotations
+            poseStack.rotateAround(Axis.YP.rotationDegrees(-90.0f * state.rotationSteps), 0.5f, 0.0f, 0.5f);
+        }
+        Transformation rootTransform = instance.skin.rootTransform();
+        if (!rootTransform.isIdentity()) {
+            // The bake applies the root transform around the block center
+            poseStack.translate(0.5f, 0.5f, 0.5f);
+            poseStack.mulPose(rootTransform.getMatrix());
+            poseStack.translate(-0.5f, -0.5f, -0.5f);
+        }
+        collector.submitCustomGeometry(poseStack, instance.skin.renderType(),
+                (pose, consumer) -> instance.render(pose, consumer, light));
+        poseStack.popPose();
+    }
+
+    @Override
+    public AABB getRenderBoundingBox(BlockyAnimatedBlockEntity blockEntity) {
+        BlockPos pos = blockEntity.getBlockPos();
+        Instance instance = instances.get(blockEntity);
+        return instance != null
+                ? instance.bounds.move(pos.getX(), pos.getY(), pos.getZ())
+                : new AABB(pos).inflate(1.0);
+    }
+
+    /**
+     * Get the render instance of a block entity, recreating it when the model, its block state model or the clip
+     * was reloaded
+     *
+     * @param blockEntity the block entity
+     * @return the instance, or null if the model, its skin or the clip is not available
+     */
+    private Instance getInstance(BlockyAnimatedBlockEntity blockEntity) {
+        BlockState state = blockEntity.getBlockState();
+        if (!(state.getBlock() instanceof BlockyAnimatedBlock block)) {
+            return null;
+        }
+        BlockyAnimation clip = BlockyAnimationLoader.INSTANCE.getAnimation(block.getAnimationLocation());
+        if (clip == null) {
+            return null;
+        }
+
+        BlockyNodeStore store;
+        try {
+            store = BlockyModelLoader.INSTANCE.loadStore(block.getModelLocation());
+        } catch (RuntimeException e) {
+            HytaleModelLoader.LOGGER.debug("[BlockyAnimatedBlockRenderer] Could not load model {}", block.getModelLocation(), e);
+            return null;
+        }
+        BlockStateModel blockModel = Minecraft.getInstance().getBlockRenderer().getBlockModel(state);
+        Instance instance = instances.get(blockEntity);
+        if (instance != null && instance.store == store && instance.blockModel == blockModel && instance.clip == clip) {
+            return instance;
+        }
+
+        // Sprites, render type and root transform come from the model JSON the block state uses
+        BlockyModelSkin skin = resolveSkin(blockModel, state, blockEntity.getBlockPos());
+        if (skin == null || skin.nodeSprites().length != store.size()) {
+            return null;
+        }
+        instance = new Instance(store, blockModel, skin, clip);
+        instances.put(blockEntity, instance);
+        return instance;
+    }
+
+    /**
+     * Find the skin of the BlockyModel part a block state model picks at a position
+     *
+     * @param blockModel the block state model
+     * @param state      the block state
+     * @param pos        the block position, selects between weighted variants like chunk meshing does
+     * @return the skin, or null if no part of the model is a BlockyModel bake
+     */
+    private static BlockyModelSkin resolveSkin(BlockStateModel blockModel, BlockState state, BlockPos pos) {
+        for (BlockModelPart part : blockModel.collectParts(RandomSource.create(state.getSeed(pos)))) {
+            if (part instanceof SimpleModelWrapper wrapper) {
+                BlockyModelSkin skin = BlockyModelLoader.INSTANCE.getSkin(wrapper.quads());
+                if (skin != null) {
+                    return skin;
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Get the time between pose updates for a block at a distance from the camera
+     *
+     * @param distance the distance to the camera in blocks
+     * @return the minimum time between updates in seconds
+     */
+    private static float updateInterval(double distance) {
+        if (distance <= FULL_RATE_DISTANCE) {
+            return 0;
+        }
+        return (float) Math.min(MAX_UPDATE_INTERVAL, (distance - FULL_RATE_DISTANCE) * INTERVAL_PER_BLOCK);
+    }
+
+    public static class State extends BlockEntityRenderState {
+        Instance instance;
+        int rotationSteps;
+    }
+
+    /**
+     * The pose of a single block entity, the meshes and pose table are shared with every other instance
+     */
+    private static final class Instance {
+        final BlockyNodeStore store;
+        final BlockStateModel blockModel;
+        final BlockyModelSkin skin;
+        final BlockyAnimation clip;
+        final BlockyNodeMeshes meshes;
+        final AnimationPoseTable table;
+        final AnimationPlayer player;
+        final AABB bounds;
+
+        final Matrix4f[] nodeMatrices;
+        final Matrix3f[] normalMatrices;
+        final float[] lastPositions;
+        final float[] lastOrientations;
+        final Matrix4f matrix = new Matrix4f();
+        final Matrix3f normal = new Matrix3f();
+        float lastUpdate = Float.NaN;
+        boolean posed;
+
+        Instance(BlockyNodeStore store, BlockStateModel blockModel, BlockyModelSkin skin, BlockyAnimation clip) {
+            this.store = store;
+            this.blockModel = blockModel;
+            this.skin = skin;
+            this.clip = clip;
+            this.meshes = BlockyNodeMeshes.get(store);
+            this.table = AnimationPoseTable.get(store, clip);
+            this.player = new AnimationPlayer(table);
+            this.bounds = transformBounds(meshes.bounds(table), skin.rootTransform());
+
+            int nodeCount = meshes.nodeCount();
+            this.nodeMatrices = new Matrix4f[nodeCount];
+            this.normalMatrices = new Matrix3f[nodeCount];
+            for (int node = 0; node < nodeCount; node++) {
+                nodeMatrices[node] = new Matrix4f();
+                normalMatrices[node] = new Matrix3f();
+            }
+            this.lastPositions = new float[nodeCount * 3];
+            this.lastOrientations = new float[nodeCount * 4];
+        }
+
+        /**
+         * Advance the pose, only nodes whose transform changed get a new matrix
+         *
+         * @param seconds  the animation time in seconds
+         * @param interval the minimum time since the last update in seconds
+         */
+        void update(float seconds, float interval) {
+            if (posed && seconds >= lastUpdate && seconds - lastUpdate < interval) {
+                return;
+            }
+            lastUpdate = seconds;
+            if (!player.update(seconds) && posed) {
+                return;
+            }
+
+            float[] positions = player.positions();
+            float[] orientations = player.orientations();
+            for (int node = 0; node < meshes.nodeCount(); node++) {
+                if (!meshes.hasQuads(node) || posed && (!table.isAnimated(node) || unchanged(node, positions, orientations))) {
+                    continue;
+                }
+                System.arraycopy(positions, node * 3, lastPositions, node * 3, 3);
+                System.arraycopy(orientations, node * 4, lastOrientations, node * 4, 4);
+                meshes.nodeMatrix(node, positions, orientations, nodeMatrices[node]).get3x3(normalMatrices[node]);
+            }
+            posed = true;
+        }
+
+        void render(PoseStack.Pose pose, VertexConsumer consumer, int light) {
+            for (int node = 0; node < meshes.nodeCount(); node++) {
+                if (!meshes.hasQuads(node)) {
+                    continue;
+                }
+                matrix.set(pose.pose()).mul(nodeMatrices[node]);
+                normal.set(pose.normal()).mul(normalMatrices[node]);
+                meshes.emitNode(node, matrix, normal, consumer, skin.nodeSprites()[node], light, OverlayTexture.NO_OVERLAY);
+            }
+        }
+
+        /**
+         * Apply the root transform to the bounds of the clip, keeping them centered horizontally for every facing
+         *
+         * @param bounds        the bounds relative to the block origin
+         * @param rootTransform the root transform of the model JSON
+         * @return the transformed bounds
+         */
+        private static AABB transformBounds(AABB bounds, Transformation rootTransform) {
+            if (rootTransform.isIdentity()) {
+                return bounds;
+            }
+            Matrix4fc matrix = rootTransform.getMatrix();
+            Vector3f corner = new Vector3f();
+            double horizontal = 0, minY = Double.MAX_VALUE, maxY = -Double.MAX_VALUE;
+            for (int i = 0; i < 8; i++) {
+                corner.set((i & 1) == 0 ? bounds.minX - 0.5 : bounds.maxX - 0.5,
+                        (i & 2) == 0 ? bounds.minY - 0.5 : bounds.maxY - 0.5,
+                        (i & 4) == 0 ? bounds.minZ - 0.5 : bounds.maxZ - 0.5);
+                matrix.transformPosition(corner);
+                horizontal = Math.max(horizontal, Math.max(Math.abs(corner.x()), Math.abs(corner.z())));
+                minY = Math.min(minY, corner.y() + 0.5);
+                maxY = Math.max(maxY, corner.y() + 0.5);
+            }
+            return new AABB(0.5 - horizontal, minY, 0.5 - horizontal, 0.5 + horizontal, maxY, 0.5 + horizontal);
+        }
+
+        private boolean unchanged(int node, float[] positions, float[] orientations) {
+            for (int i = node * 3; i < node * 3 + 3; i++) {
+                if (positions[i] != lastPositions[i]) {
+                    return false;
+                }
+            }
+            for (int i = node * 4; i < node * 4 + 4; i++) {
+                if (orientations[i] != lastOrientations[i]) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package com.litehed.hytalemodels.render;
+
+import com.google.common.collect.Maps;
+import com.litehed.hytalemodels.modelstuff.BlockyModelGeometry;
+import com.litehed.hytalemodels.modelstuff.BlockyModelLoader;
+import com.litehed.hytalemodels.modelstuff.BlockyNodeMeshes;
+import com.litehed.hytalemodels.modelstuff.BlockyNodeStore;
+import net.minecraft.resources.Identifier;
+
+import java.util.Map;
+
+/**
+ * A BlockyModel prepared for entity rendering, shared by every entity using the same model location
+ * Holds the node-local meshes and the bind pose, both immutable, so entities only need to carry their own pose
+ */
+public final class BlockyEntityModel {
+
+    private static final Map<Identifier, BlockyEntityModel> CACHE = Maps.newConcurrentMap();
+
+    private final BlockyNodeStore store;
+    private final BlockyNodeMeshes meshes;
+    // Distinct texture slots and the slot index of every node
+    private final String[] textureSlots;
+    private final int[] nodeSlots;
+    private final float[] bindPositions;
+    private final float[] bindOrientations;
+
+    private BlockyEntityModel(BlockyNodeStore store) {
+        this.store = store;
+        this.meshes = BlockyNodeMeshes.get(store);
+        this.nodeSlots = new int[store.size()];
+        this.textureSlots = BlockyModelGeometry.resolveNodeSlots(store, Map.of(), nodeSlots);
+
+        float[] localPositions = new float[store.size() * 3];
+        float[] localOrientations = new float[store.size() * 4];
+        store.copyLocalTransforms(localPositions, localOrientations);
+        this.bindPositions = new float[store.size() * 3];
+        this.bindOrientations = new float[store.size() * 4];
+        store.calculateWorldTransforms(localPositions, localOrientations, bindPositions, bindOrientations);
+    }
+
+    /**
+     * Get the shared entity model for a model location
+     * The model is rebuilt when a resource reload replaced the parsed nodes
+     *
+     * @param location the location of the .blockymodel file
+     * @return the shared entity model
+     * @throws RuntimeException if the model cannot be loaded
+     */
+    public static BlockyEntityModel get(Identifier location) {
+        BlockyNodeStore store = BlockyModelLoader.INSTANCE.loadStore(location);
+        BlockyEntityModel model = CACHE.get(location);
+        if (model == null || model.store != store) {
+            model = new BlockyEntityModel(store);
+            CACHE.put(location, model);
+        }
+        return model;
+    }
+
+    /**
+     * Drop every entity model, called after a resource reload so replaced node stores and their meshes can be collected
+     */
+    public static void clearCache() {
+        CACHE.clear();
+    }
+
+    public BlockyNodeStore getStore() {
+        return store;
+    }
+
+    public BlockyNodeMeshes getMeshes() {
+        return meshes;
+    }
+
+    /**
+     * Get the texture slots the nodes use, resolved like for baked models
+     *
+     * @return the shared slot names, must not be modified
+     */
+    public String[] textureSlots() {
+        return textureSlots;
+    }
+
+    /**
+     * Get the texture slot of a node
+     *
+     * @param node the node index
+     * @return the index into {@link #textureSlots()}
+     */
+    public int nodeSlot(int node) {
+        return nodeSlots[node];
+    }
+
+    /**
+     * Get the world positions of the bind pose, 3 floats per node
+     *
+     * @return the shared position array, must not be modified
+     */
+    public float[] bindPositions() {
+        return bindPositions;
+    }
+
+    /**
+     * Get the world orientations of the bind pose, 4 floats per node
+     *
+     * @return the shared orientation array, must not be modified
+     */
+    public float[] bindOrientations() {
+        return bindOrientations;
+    }
+}
@@ -0,0 +1,238 @@
+package com.litehed.hytalemodels.render;
+
+import com.litehed.hytalemodels.HytaleModelLoader;
+import com.litehed.hytalemodels.animation.AnimationPlayer;
+import com.litehed.hytalemodels.animation.AnimationPoseTable;
+import com.litehed.hytalemodels.animation.BlockyAnimation;
+import com.litehed.hytalemodels.animation.BlockyAnimationLoader;
+import com.litehed.hytalemodels.modelstuff.BlockyNodeMeshes;
+import com.mojang.blaze3d.vertex.PoseStack;
+import com.mojang.blaze3d.vertex.VertexConsumer;
+import com.mojang.math.Axis;
+import net.minecraft.client.Minecraft;
+import net.minecraft.client.renderer.Sheets;
+import net.minecraft.client.renderer.SubmitNodeCollector;
+import net.minecraft.client.renderer.entity.EntityRenderer;
+import net.minecraft.client.renderer.entity.EntityRendererProvider;
+import net.minecraft.client.renderer.entity.state.EntityRenderState;
+import net.minecraft.client.renderer.rendertype.RenderType;
+import net.minecraft.client.renderer.state.CameraRenderState;
+import net.minecraft.client.renderer.texture.OverlayTexture;
+import net.minecraft.client.renderer.texture.TextureAtlas;
+import net.minecraft.client.renderer.texture.TextureAtlasSprite;
+import net.minecraft.client.resources.model.Material;
+import net.minecraft.resources.Identifier;
+import net.minecraft.util.Mth;
+import net.minecraft.world.entity.Entity;
+import org.jetbrains.annotations.Nullable;
+import org.joml.Matrix3f;
+import org.joml.Matrix4f;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+/**
+ * Renders an entity with a BlockyModel
+ * The meshes are shared through {@link BlockyEntityModel}, an entity only owns its animation pose,
+ * and every entity is submitted once, the node matrices are applied while its vertices are emitted
+ * Textures are looked up in the block atlas per texture slot, nodes pick their slot like in block and item models
+ *
+ * @param <T> the entity type
+ */
+public class BlockyEntityRenderer<T extends Entity> extends EntityRenderer<T, BlockyEntityRenderer.State> {
+
+    private static final float TICKS_PER_SECOND = 20.0f;
+
+    private static final String DEFAULT_TEXTURE_SLOT = "texture";
+
+    private final Identifier modelLocation;
+    private final Map<String, Material> textures;
+    private final RenderType renderType;
+    @Nullable
+    private final Identifier animationLocation;
+    private final Map<Entity, AnimationPlayer> players = new WeakHashMap<>();
+    // Scratch matrices, submitted geometry is emitted on the render thread one entity at a time
+    private final Matrix4f nodeMatrix = new Matrix4f();
+    private final Matrix3f nodeNormal = new Matrix3f();
+    private final Matrix4f matrix = new Matrix4f();
+    private final Matrix3f normal = new Matrix3f();
+    // Sprite per node of the model they were resolved for, renderers are recreated when the atlas is reloaded
+    private BlockyEntityModel spriteModel;
+    private TextureAtlasSprite[] nodeSprites;
+
+    /**
+     * Constructor for BlockyEntityRenderer with a single texture and the cutout render type
+     *
+     * @param context           the renderer context
+     * @param modelLocation     the location of the .blockymodel file
+     * @param texture           the texture in the block atlas
+     * @param animationLocation the .blockyanim clip to loop, or null to render the bind pose
+     */
+    public BlockyEntityRenderer(EntityRendererProvider.Context context, Identifier modelLocation, Identifier texture,
+                                @Nullable Identifier animationLocation) {
+        this(context, modelLocation, Map.of(DEFAULT_TEXTURE_SLOT, texture), Sheets.cutoutBlockSheet(), animationLocation);
+    }
+
+    /**
+     * Constructor for BlockyEntityRenderer
+     *
+     * @param context           the renderer context
+     * @param modelLocation     the location of the .blockymodel file
+     * @param textures          the texture in the block atlas per texture slot, must contain the "texture" slot
+     *                          used by nodes that do not declare one
+     * @param renderType        the render type, it must draw from the block atlas
+     * @param animationLocation the .blockyanim clip to loop, or null to render the bind pose
+     */
+    public BlockyEntityRenderer(EntityRendererProvider.Context context, Identifier modelLocation,
+                                Map<String, Identifier> textures, RenderType renderType,
+                                @Nullable Identifier animationLocation) {
+        super(context);
+        if (!textures.containsKey(DEFAULT_TEXTURE_SLOT)) {
+            throw new IllegalArgumentException("BlockyEntityRenderer requires a '" + DEFAULT_TEXTURE_SLOT + "' texture for " + modelLocation);
+        }
+        this.modelLocation = modelLocation;
+        Map<String, Material> materials = new HashMap<>();
+        textures.forEach((slot, texture) -> materials.put(slot, new Material(TextureAtlas.LOCATION_BLOCKS, texture)));
+        this.textures = Map.copyOf(materials);
+        this.renderType = renderType;
+        this.animationLocation = animationLocation;
+        if (animationLocation != null) {
+            BlockyAnimationLoader.INSTANCE.require(animationLocation);
+        }
+    }
+
+    @Override
+    public State createRenderState() {
+        return new State();
+    }
+
+    @Override
+    public void extractRenderState(T entity, State state, float partialTick) {
+        super.extractRenderState(entity, state, partialTick);
+        state.yRot = Mth.rotLerp(partialTick, entity.yRotO, entity.getYRot());
+
+        BlockyEntityModel model;
+        try {
+            model = BlockyEntityModel.get(modelLocation);
+        } catch (RuntimeException e) {
+            HytaleModelLoader.LOGGER.debug("[BlockyEntityRenderer] Could not load model {}", modelLocation, e);
+            state.model = null;
+            return;
+        }
+        state.model = model;
+        state.nodeSprites = getNodeSprites(model);
+
+        AnimationPlayer player = getPlayer(entity, model);
+        if (player != null) {
+            player.update((entity.tickCount + partialTick) / TICKS_PER_SECOND);
+            state.positions = player.positions();
+            state.orientations = player.orientations();
+        } else {
+            state.positions = model.bindPositions();
+            state.orientations = model.bindOrientations();
+        }
+    }
+
+    @Override
+    public void submit(State state, PoseStack poseStack, SubmitNodeCollector collector, CameraRenderState cameraState) {
+        BlockyEntityModel model = state.model;
+        if (model != null && state.nodeSprites != null) {
+            BlockyNodeMeshes meshes = model.getMeshes();
+            TextureAtlasSprite[] sprites = state.nodeSprites;
+            float[] positions = state.positions;
+            float[] orientations = state.orientations;
+            int light = state.lightCoords;
+
+            poseStack.pushPose();
+            poseStack.mulPose(Axis.YP.rotationDegrees(180.0f - state.yRot));
+            // Node transforms are in block space, center the model horizontally on the entity
+            poseStack.translate(-0.5f, 0.0f, -0.5f);
+            collector.submitCustomGeometry(poseStack, renderType,
+                    (pose, consumer) -> render(meshes, pose, consumer, sprites, positions, orientations, light));
+            poseStack.popPose();
+        }
+        super.submit(state, poseStack, collector, cameraState);
+    }
+
+    /**
+     * Emit every node of an entity, each placed by its world transform relative to the entity pose
+     *
+     * @param meshes       the shared node meshes
+     * @param pose         the pose of the entity
+     * @param consumer     the vertex consumer
+     * @param sprites      the sprite per node
+     * @param positions    the world positions of the pose, 3 floats per node
+     * @param orientations the world orientations of the pose, 4 floats per node
+     * @param light        the packed light
+     */
+    private void render(BlockyNodeMeshes meshes, PoseStack.Pose pose, VertexConsumer consumer, TextureAtlasSprite[] sprites,
+                        float[] positions, float[] orientations, int light) {
+        for (int node = 0; node < meshes.nodeCount(); node++) {
+            if (!meshes.hasQuads(node)) {
+                continue;
+            }
+            meshes.nodeMatrix(node, positions, orientations, nodeMatrix);
+            matrix.set(pose.pose()).mul(nodeMatrix);
+            normal.set(pose.normal()).mul(nodeMatrix.get3x3(nodeNormal));
+            meshes.emitNode(node, matrix, normal, consumer, sprites[node], light, OverlayTexture.NO_OVERLAY);
+        }
+    }
+
+    /**
+     * Get the sprite of every node, slots without a texture fall back to the "texture" slot
+     *
+     * @param model the shared model
+     * @return the sprite per node
+     */
+    private TextureAtlasSprite[] getNodeSprites(BlockyEntityModel model) {
+        if (model != spriteModel) {
+            String[] slots = model.textureSlots();
+            TextureAtlasSprite[] slotSprites = new TextureAtlasSprite[slots.length];
+            for (int slot = 0; slot < slots.length; slot++) {
+                Material material = textures.getOrDefault(slots[slot], textures.get(DEFAULT_TEXTURE_SLOT));
+                slotSprites[slot] = Minecraft.getInstance().getAtlasManager().get(material);
+            }
+            TextureAtlasSprite[] sprites = new TextureAtlasSprite[model.getStore().size()];
+            for (int node = 0; node < sprites.length; node++) {
+                sprites[node] = slotSprites[model.nodeSlot(node)];
+            }
+            nodeSprites = sprites;
+            spriteModel = model;
+        }
+        return nodeSprites;
+    }
+
+    /**
+     * Get the animation player of an entity, recreating it when the model or clip was reloaded
+     *
+     * @param entity the entity
+     * @param model  the shared model
+     * @return the player, or null if the entity is not animated
+     */
+    private AnimationPlayer getPlayer(T entity, BlockyEntityModel model) {
+        if (animationLocation == null) {
+            return null;
+        }
+        BlockyAnimation clip = BlockyAnimationLoader.INSTANCE.getAnimation(animationLocation);
+        if (clip == null) {
+            return null;
+        }
+
+        AnimationPoseTable table = AnimationPoseTable.get(model.getStore(), clip);
+        AnimationPlayer player = players.get(entity);
+        if (player == null || player.getTable() != table) {
+            player = new AnimationPlayer(table);
+            players.put(entity, player);
+        }
+        return player;
+    }
+
+    public static class State extends EntityRenderState {
+        BlockyEntityModel model;
+        TextureAtlasSprite[] nodeSprites;
+        float[] positions;
+        float[] orientations;
+        float yRot;
+    }
+}